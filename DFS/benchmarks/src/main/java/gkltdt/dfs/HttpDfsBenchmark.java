@@ -0,0 +1,71 @@
+package gkltdt.dfs;
+
+import com.sun.net.httpserver.HttpServer;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Toàn bộ đường đi của GET /dfs qua loopback: parse query, cache / ETag, duyệt, render, stream, gzip.
+ * cache=false tắt ResponseCache (DFS_CACHE_MB=0) để mỗi request đều duyệt và serialize lại.
+ * format=bin là định dạng UI dùng: so trực tiếp với json / delta trên cùng đường HTTP.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx8g"})
+@State(Scope.Benchmark)
+public class HttpDfsBenchmark {
+
+    @Param({"path", "random", "powerlaw"})
+    public String shape;
+
+    @Param({"9", "256"})
+    public int size;
+
+    @Param({"json", "delta", "text", "bin"})
+    public String format;
+
+    @Param({"true", "false"})
+    public boolean cache;
+
+    @Param({"identity", "gzip"})
+    public String encoding;
+
+    private HttpServer httpServer;
+    private HttpClient client;
+    private HttpRequest request;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        GraphDFSServer app = new GraphDFSServer(SyntheticGraphs.create(shape, size, 42));
+        httpServer = app.startHttpServer(ServerConfig.of(Map.of(
+                "PORT", "0",
+                "DFS_CACHE_MB", cache ? "64" : "0",
+                "DFS_MAX_TRAVERSALS", "1024")));
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        request = HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + httpServer.getAddress().getPort()
+                        + "/dfs?start=0&format=" + format))
+                .header("Accept-Encoding", encoding)
+                .build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        httpServer.stop(0);
+    }
+
+    @Benchmark
+    public int dfsHandler() throws IOException, InterruptedException {
+        HttpResponse<byte[]> resp = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        if (resp.statusCode() != 200) throw new IllegalStateException("HTTP " + resp.statusCode());
+        return resp.body().length;
+    }
+}
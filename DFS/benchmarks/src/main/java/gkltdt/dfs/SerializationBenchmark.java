@@ -0,0 +1,51 @@
+package gkltdt.dfs;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * dfsIterativeJson, dfsIterativeTrace, adjacencyJson (trả String) và dfsIterativeBin (format=bin) trên đồ thị tổng hợp.
+ * format=json chụp stack/visited ở mỗi bước nên kích thước đầu ra ~ O(V^2): chỉ đo tới vài nghìn đỉnh.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx8g"})
+@State(Scope.Benchmark)
+public class SerializationBenchmark {
+
+    @Param({"path", "grid", "random", "dense", "powerlaw"})
+    public String shape;
+
+    @Param({"9", "256", "2048"})
+    public int size;
+
+    private GraphDFSServer server;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        server = new GraphDFSServer(SyntheticGraphs.create(shape, size, 42));
+    }
+
+    @Benchmark
+    public String dfsIterativeJson() {
+        return server.dfsIterativeJson(0);
+    }
+
+    @Benchmark
+    public String dfsIterativeTrace() {
+        return server.dfsIterativeTrace(0);
+    }
+
+    @Benchmark
+    public byte[] dfsIterativeBin() {
+        return server.dfsIterativeBin(0);
+    }
+
+    @Benchmark
+    public String adjacencyJson() {
+        return server.adjacencyJson();
+    }
+}
@@ -0,0 +1,90 @@
+package gkltdt.dfs;
+
+import java.util.SplittableRandom;
+
+/**
+ * SyntheticGraphs — đồ thị tổng hợp (vô hướng, có seed) cho benchmark.
+ * - path     : 0-1-2-...-(n-1), stack sâu nhất có thể
+ * - grid     : lưới ceil(sqrt(n)) cột, hàng cuối có thể thiếu
+ * - random   : n*4 cạnh ngẫu nhiên đều (bậc trung bình ~8)
+ * - dense    : mỗi đỉnh nối tới min(n-1, 256) đỉnh ngẫu nhiên, tổng số cung giới hạn ~10^8
+ * - powerlaw : Barabási–Albert, mỗi đỉnh mới nối tới 4 đỉnh theo bậc (phân bố bậc luật luỹ thừa)
+ */
+final class SyntheticGraphs {
+
+    static final String[] SHAPES = {"path", "grid", "random", "dense", "powerlaw"};
+
+    private static final int DENSE_DEGREE = 256;
+    private static final long MAX_DENSE_ARCS = 100_000_000L;
+    private static final int POWER_LAW_EDGES = 4;
+
+    private SyntheticGraphs() {}
+
+    static CsrGraph create(String shape, int n, long seed) {
+        SplittableRandom rnd = new SplittableRandom(seed);
+        switch (shape) {
+            case "path": return path(n);
+            case "grid": return grid(n);
+            case "random": return randomSparse(n, 4L * n, rnd);
+            case "dense": return dense(n, rnd);
+            case "powerlaw": return powerLaw(n, POWER_LAW_EDGES, rnd);
+            default: throw new IllegalArgumentException("Unknown shape: " + shape);
+        }
+    }
+
+    static CsrGraph path(int n) {
+        CsrGraph.Builder b = CsrGraph.builder(n);
+        for (int v = 1; v < n; v++) b.addEdge(v - 1, v);
+        return b.build();
+    }
+
+    static CsrGraph grid(int n) {
+        int cols = (int) Math.ceil(Math.sqrt(n));
+        CsrGraph.Builder b = CsrGraph.builder(n);
+        for (int v = 0; v < n; v++) {
+            if ((v + 1) % cols != 0 && v + 1 < n) b.addEdge(v, v + 1);
+            if (v + cols < n) b.addEdge(v, v + cols);
+        }
+        return b.build();
+    }
+
+    static CsrGraph randomSparse(int n, long edges, SplittableRandom rnd) {
+        CsrGraph.Builder b = CsrGraph.builder(n);
+        for (long i = 0; i < edges; i++) b.addEdge(rnd.nextInt(n), rnd.nextInt(n));
+        return b.build();
+    }
+
+    static CsrGraph dense(int n, SplittableRandom rnd) {
+        CsrGraph.Builder b = CsrGraph.builder(n);
+        if (n - 1 <= DENSE_DEGREE) { // đủ nhỏ: đồ thị đầy đủ
+            for (int u = 0; u < n; u++) {
+                for (int v = u + 1; v < n; v++) b.addEdge(u, v);
+            }
+            return b.build();
+        }
+        int half = (int) Math.max(1, Math.min(DENSE_DEGREE, MAX_DENSE_ARCS / n) / 2);
+        for (int u = 0; u < n; u++) {
+            for (int i = 0; i < half; i++) b.addEdge(u, rnd.nextInt(n));
+        }
+        return b.build();
+    }
+
+    static CsrGraph powerLaw(int n, int m, SplittableRandom rnd) {
+        CsrGraph.Builder b = CsrGraph.builder(n);
+        // mỗi cạnh ghi cả hai đầu: chọn ngẫu nhiên một phần tử = chọn đỉnh theo bậc
+        int[] ends = new int[(int) Math.min(Integer.MAX_VALUE - 8, 2L * m * n)];
+        int size = 0;
+        for (int v = 1; v < n; v++) {
+            int k = Math.min(v, m);
+            for (int i = 0; i < k; i++) {
+                int u = size == 0 ? 0 : ends[rnd.nextInt(size)];
+                b.addEdge(u, v);
+                if (size + 2 <= ends.length) {
+                    ends[size++] = u;
+                    ends[size++] = v;
+                }
+            }
+        }
+        return b.build();
+    }
+}
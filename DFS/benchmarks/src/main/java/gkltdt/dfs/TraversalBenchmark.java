@@ -0,0 +1,67 @@
+package gkltdt.dfs;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Nhân duyệt DFS, ghi vết delta và phân tích toàn đồ thị (GraphAnalysis) trên đồ thị tổng hợp từ 9 tới 10M đỉnh.
+ * storage=mapped ghi đồ thị ra file tạm (GraphFile) rồi duyệt trên bản map vào bộ nhớ.
+ * Kích thước lớn cần heap lớn: -jvmArgs -Xmx16g; chạy kèm -prof gc để xem allocation rate.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx8g"})
+@State(Scope.Benchmark)
+public class TraversalBenchmark {
+
+    @Param({"path", "grid", "random", "dense", "powerlaw"})
+    public String shape;
+
+    @Param({"9", "1000", "100000", "10000000"})
+    public int size;
+
+    @Param({"heap", "mapped"})
+    public String storage;
+
+    private CsrGraph graph;
+    private Path file;
+    private DfsKernel kernel;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        graph = SyntheticGraphs.create(shape, size, 42);
+        if (storage.equals("mapped")) {
+            file = Files.createTempFile("dfs-bench", ".csr");
+            GraphFile.write(graph, file);
+            graph = GraphFile.open(file);
+        }
+        kernel = new DfsKernel(graph.vertexCount());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        if (file != null) Files.delete(file); // mapping vẫn hợp lệ tới khi được GC
+    }
+
+    @Benchmark
+    public int kernel() {
+        kernel.run(graph, 0, null);
+        return kernel.visitedCount();
+    }
+
+    @Benchmark
+    public DfsTrace recordTrace() {
+        return DfsTrace.record(graph, 0, kernel, DfsTrace.DEFAULT_CHECKPOINT_INTERVAL);
+    }
+
+    @Benchmark
+    public GraphAnalysis analysis() {
+        return GraphAnalysis.run(graph, false);
+    }
+}
@@ -0,0 +1,137 @@
+package gkltdt.dfs;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * BinaryTrace — mã hoá DfsTrace theo cột cho /dfs?format=bin (application/octet-stream).
+ *
+ * Bố cục (varint = LEB128 không dấu: 7 bit mỗi byte, nhóm thấp trước, bit 8 = còn tiếp):
+ * <pre>
+ *   magic         4 byte "DFSB"
+ *   version       1 byte = 1
+ *   graphVersion  varint — phiên bản đồ thị; danh sách kề tương ứng lấy qua GET /graph/edges
+ *   vertices      varint n
+ *   start         varint
+ *   steps         varint S
+ *   pushes        varint P (số bước PUSH)
+ *   cpInterval    varint K
+ *   checkpoints   varint C = floor(S / K)
+ *   actions       S byte, mỗi bước một byte: 0 = PUSH, 1 = VISIT, 2 = POP
+ *   pushNodes     P varint: đỉnh của từng bước PUSH theo thứ tự. VISIT / POP luôn tác động lên
+ *                 đỉnh trên cùng stack nên không cần lưu đỉnh
+ *   checkpoint c (c = 0..C-1) = trạng thái sau (c+1)·K bước:
+ *                 varint visitedCount, varint stackDepth, varint (đỉnh trên cùng + 1, 0 = stack rỗng),
+ *                 ceil(n/8) byte bitset visited (đỉnh v: byte v&gt;&gt;3, bit v&amp;7)
+ * </pre>
+ * K = max(256, ceil(n/8)): mỗi bitset không lớn hơn đoạn cột actions nó bao phủ, nên toàn bộ
+ * checkpoint không vượt quá S byte kể cả với đồ thị rất lớn.
+ */
+final class BinaryTrace {
+
+    static final String CONTENT_TYPE = "application/octet-stream";
+
+    private static final byte[] MAGIC = {'D', 'F', 'S', 'B'};
+    private static final int VERSION = 1;
+    private static final int MIN_CHECKPOINT_INTERVAL = 256;
+    private static final int BUFFER_BYTES = 64 * 1024;
+
+    private BinaryTrace() {}
+
+    static void write(DfsTrace trace, long graphVersion, OutputStream out) throws IOException {
+        int n = trace.vertexCount();
+        int steps = trace.size();
+        int pushes = 0;
+        for (int i = 0; i < steps; i++) {
+            if (trace.action(i) == DfsKernel.PUSH) pushes++;
+        }
+        int bitsetBytes = (n + 7) >>> 3;
+        int interval = Math.max(MIN_CHECKPOINT_INTERVAL, bitsetBytes);
+        int checkpoints = steps / interval;
+
+        Sink s = new Sink(out);
+        s.bytes(MAGIC, 0, MAGIC.length);
+        s.put(VERSION);
+        s.varint(graphVersion);
+        s.varint(n);
+        s.varint(trace.start());
+        s.varint(steps);
+        s.varint(pushes);
+        s.varint(interval);
+        s.varint(checkpoints);
+
+        s.flush();
+        trace.writeActions(out); // cột actions đã đúng dạng 1 byte / bước: ghi nguyên khối
+
+        for (int i = 0; i < steps; i++) {
+            if (trace.action(i) == DfsKernel.PUSH) s.varint(trace.node(i));
+        }
+
+        if (checkpoints > 0) {
+            byte[] visited = new byte[bitsetBytes];
+            int[] stack = new int[pushes]; // độ sâu không vượt số PUSH (= số đỉnh thăm), không cần O(V)
+            int depth = 0;
+            int visitedCount = 0;
+            for (int i = 0, end = checkpoints * interval; i < end; i++) {
+                int v = trace.node(i);
+                switch (trace.action(i)) {
+                    case DfsKernel.PUSH: stack[depth++] = v; break;
+                    case DfsKernel.VISIT: visited[v >>> 3] |= (byte) (1 << (v & 7)); visitedCount++; break;
+                    default: depth--;
+                }
+                if ((i + 1) % interval == 0) {
+                    s.varint(visitedCount);
+                    s.varint(depth);
+                    s.varint(depth > 0 ? stack[depth - 1] + 1 : 0);
+                    s.bytes(visited, 0, bitsetBytes);
+                }
+            }
+        }
+        s.flush();
+        out.flush();
+    }
+
+    /** Bộ đệm byte riêng: tránh gọi OutputStream.write(int) (có khoá) cho từng byte varint. */
+    private static final class Sink {
+        private final OutputStream out;
+        private final byte[] buf = new byte[BUFFER_BYTES];
+        private int pos;
+
+        Sink(OutputStream out) {
+            this.out = out;
+        }
+
+        void put(int b) throws IOException {
+            if (pos == buf.length) flush();
+            buf[pos++] = (byte) b;
+        }
+
+        void varint(long v) throws IOException {
+            if (buf.length - pos < 10) flush();
+            while ((v & ~0x7FL) != 0) {
+                buf[pos++] = (byte) ((v & 0x7F) | 0x80);
+                v >>>= 7;
+            }
+            buf[pos++] = (byte) v;
+        }
+
+        void bytes(byte[] b, int off, int len) throws IOException {
+            if (len > buf.length - pos) {
+                flush();
+                if (len > buf.length) {
+                    out.write(b, off, len);
+                    return;
+                }
+            }
+            System.arraycopy(b, off, buf, pos, len);
+            pos += len;
+        }
+
+        void flush() throws IOException {
+            if (pos > 0) {
+                out.write(buf, 0, pos);
+                pos = 0;
+            }
+        }
+    }
+}
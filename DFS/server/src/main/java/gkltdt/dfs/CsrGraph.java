@@ -0,0 +1,250 @@
+package gkltdt.dfs;
+
+import java.util.Arrays;
+
+/**
+ * CsrGraph — đồ thị bất biến lưu dạng CSR (compressed sparse row).
+ * - Đỉnh kề của v nằm ở targets[begin(v) .. end(v)), sắp xếp tăng dần, không trùng lặp
+ * - Hai cách lưu: mảng int trên heap (dựng bằng {@link Builder} từ danh sách cạnh, 4 byte mỗi cung
+ *   + 4 byte mỗi đỉnh) hoặc file nhị phân map vào bộ nhớ ({@link MappedCsrGraph}, nằm ngoài heap)
+ * - Chỉ số cung là int: tối đa ~2^31 cung mỗi đồ thị
+ */
+public abstract class CsrGraph {
+
+    CsrGraph() {}
+
+    public abstract int vertexCount();
+
+    /** Số cạnh (vô hướng) hoặc số cung (có hướng). */
+    public abstract long edgeCount();
+
+    /** Số phần tử trong mảng targets (mỗi cạnh vô hướng tính hai lần). */
+    public abstract int arcCount();
+
+    public abstract boolean isDirected();
+
+    /** Chỉ số đầu (bao gồm) của khoảng kề của v trong targets. */
+    public abstract int begin(int v);
+
+    /** Chỉ số cuối (không bao gồm) của khoảng kề của v trong targets. */
+    public abstract int end(int v);
+
+    public abstract int target(int i);
+
+    public int degree(int v) { return end(v) - begin(v); }
+
+    public boolean hasEdge(int u, int v) {
+        if (u < 0 || u >= vertexCount() || v < 0 || v >= vertexCount()) return false;
+        int lo = begin(u), hi = end(u) - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            int t = target(mid);
+            if (t < v) lo = mid + 1;
+            else if (t > v) hi = mid - 1;
+            else return true;
+        }
+        return false;
+    }
+
+    // vô hướng: mỗi cạnh u-v (u != v) được lưu hai lần, khuyên u-u lưu một lần
+    static long countEdges(CsrGraph g) {
+        if (g.isDirected()) return g.arcCount();
+        long count = 0;
+        for (int v = 0, n = g.vertexCount(); v < n; v++) {
+            for (int i = g.begin(v), e = g.end(v); i < e; i++) {
+                if (g.target(i) >= v) count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Bản sao (trên heap) có thêm các cạnh {@code us[i]-vs[i]} (cạnh đã có bị bỏ qua). Đồ thị gốc không đổi.
+     * Số đỉnh tăng theo id lớn nhất; chi phí O(V + E + lô) nhờ trộn các khoảng kề đã sắp xếp.
+     */
+    public CsrGraph withEdgesAdded(int[] us, int[] vs) {
+        Heap add = builder(vertexCount()).directed(isDirected()).addEdges(us, vs).buildHeap();
+        return merge(add, null);
+    }
+
+    /** Bản sao (trên heap) đã bỏ các cạnh {@code us[i]-vs[i]} (cạnh không tồn tại bị bỏ qua). Đồ thị gốc không đổi. */
+    public CsrGraph withEdgesRemoved(int[] us, int[] vs) {
+        if (us.length != vs.length) {
+            throw new IllegalArgumentException("us.length != vs.length: " + us.length + " != " + vs.length);
+        }
+        int n = vertexCount();
+        Builder b = builder(n).directed(isDirected());
+        for (int i = 0; i < us.length; i++) {
+            if (us[i] >= 0 && us[i] < n && vs[i] >= 0 && vs[i] < n) b.addEdge(us[i], vs[i]);
+        }
+        return merge(null, b.buildHeap());
+    }
+
+    // Trộn từng khoảng kề: (cũ ∪ add) \ del; cả ba đều đã sắp xếp và không trùng lặp
+    private CsrGraph merge(Heap add, Heap del) {
+        int n = vertexCount();
+        int m = Math.max(n, add == null ? 0 : add.n);
+        int[] newOffsets = new int[m + 1];
+        long cap = (long) arcCount() + (add == null ? 0 : add.targets.length);
+        if (cap > Integer.MAX_VALUE - 8) throw new IllegalStateException("Quá nhiều cung: " + cap);
+        int[] newTargets = new int[(int) cap];
+        int w = 0;
+        for (int v = 0; v < m; v++) {
+            newOffsets[v] = w;
+            int i = v < n ? begin(v) : 0, ie = v < n ? end(v) : 0;
+            int j = add != null && v < add.n ? add.offsets[v] : 0, je = add != null && v < add.n ? add.offsets[v + 1] : 0;
+            int k = del != null && v < del.n ? del.offsets[v] : 0, ke = del != null && v < del.n ? del.offsets[v + 1] : 0;
+            while (i < ie || j < je) {
+                int x;
+                if (j >= je || (i < ie && target(i) <= add.targets[j])) {
+                    x = target(i++);
+                    if (j < je && add.targets[j] == x) j++;
+                } else {
+                    x = add.targets[j++];
+                }
+                while (k < ke && del.targets[k] < x) k++;
+                if (k < ke && del.targets[k] == x) continue;
+                newTargets[w++] = x;
+            }
+        }
+        newOffsets[m] = w;
+        if (w != newTargets.length) newTargets = Arrays.copyOf(newTargets, w);
+        return new Heap(m, isDirected(), newOffsets, newTargets);
+    }
+
+    public static Builder builder() { return new Builder(0); }
+
+    /** Builder với tối thiểu {@code vertexCount} đỉnh (0..vertexCount-1). */
+    public static Builder builder(int vertexCount) { return new Builder(vertexCount); }
+
+    /**
+     * Dựng đồ thị từ danh sách cạnh song song {@code us[i] -> vs[i]}.
+     */
+    public static CsrGraph fromEdges(int vertexCount, int[] us, int[] vs, boolean directed) {
+        return builder(vertexCount).directed(directed).addEdges(us, vs).build();
+    }
+
+    // ---------------- lưu trên heap ----------------
+
+    private static final class Heap extends CsrGraph {
+        private final int n;
+        private final boolean directed;
+        private final int[] offsets; // độ dài n+1
+        private final int[] targets; // độ dài offsets[n]
+        private final long edgeCount;
+
+        Heap(int n, boolean directed, int[] offsets, int[] targets) {
+            this.n = n;
+            this.directed = directed;
+            this.offsets = offsets;
+            this.targets = targets;
+            this.edgeCount = countEdges(this);
+        }
+
+        @Override public int vertexCount() { return n; }
+        @Override public long edgeCount() { return edgeCount; }
+        @Override public int arcCount() { return targets.length; }
+        @Override public boolean isDirected() { return directed; }
+        @Override public int begin(int v) { return offsets[v]; }
+        @Override public int end(int v) { return offsets[v + 1]; }
+        @Override public int target(int i) { return targets[i]; }
+
+        @Override
+        public boolean hasEdge(int u, int v) {
+            if (u < 0 || u >= n || v < 0 || v >= n) return false;
+            return Arrays.binarySearch(targets, offsets[u], offsets[u + 1], v) >= 0;
+        }
+    }
+
+    // ---------------- Builder ----------------
+
+    /**
+     * Gom cạnh vào hai mảng int co giãn, rồi dựng CSR bằng counting sort theo đỉnh nguồn.
+     * Số đỉnh tự mở rộng theo id lớn nhất. Cạnh trùng bị loại khi build().
+     */
+    public static final class Builder {
+        private int n;
+        private boolean directed;
+        private int[] src = new int[16];
+        private int[] dst = new int[16];
+        private int size;
+
+        private Builder(int vertexCount) {
+            if (vertexCount < 0) throw new IllegalArgumentException("vertexCount < 0: " + vertexCount);
+            this.n = vertexCount;
+        }
+
+        public Builder directed(boolean directed) {
+            this.directed = directed;
+            return this;
+        }
+
+        public Builder addEdge(int u, int v) {
+            if (u < 0 || v < 0) throw new IllegalArgumentException("Đỉnh âm: " + u + "-" + v);
+            if (size == src.length) {
+                int cap = Math.max(16, (int) Math.min(Integer.MAX_VALUE - 8, (long) size * 2));
+                if (cap == size) throw new IllegalStateException("Quá nhiều cạnh");
+                src = Arrays.copyOf(src, cap);
+                dst = Arrays.copyOf(dst, cap);
+            }
+            src[size] = u;
+            dst[size] = v;
+            size++;
+            if (u >= n) n = u + 1;
+            if (v >= n) n = v + 1;
+            return this;
+        }
+
+        public Builder addEdges(int[] us, int[] vs) {
+            if (us.length != vs.length) {
+                throw new IllegalArgumentException("us.length != vs.length: " + us.length + " != " + vs.length);
+            }
+            for (int i = 0; i < us.length; i++) addEdge(us[i], vs[i]);
+            return this;
+        }
+
+        public CsrGraph build() {
+            return buildHeap();
+        }
+
+        private Heap buildHeap() {
+            // 1) đếm bậc
+            int[] offsets = new int[n + 1];
+            for (int i = 0; i < size; i++) {
+                offsets[src[i] + 1]++;
+                if (!directed && src[i] != dst[i]) offsets[dst[i] + 1]++;
+            }
+            // 2) cộng dồn
+            long total = 0;
+            for (int v = 1; v <= n; v++) {
+                total += offsets[v];
+                if (total > Integer.MAX_VALUE - 8) throw new IllegalStateException("Quá nhiều cung: " + total);
+                offsets[v] = (int) total;
+            }
+            // 3) rải đích vào đúng khoảng
+            int[] targets = new int[(int) total];
+            int[] cursor = Arrays.copyOf(offsets, n);
+            for (int i = 0; i < size; i++) {
+                int u = src[i], v = dst[i];
+                targets[cursor[u]++] = v;
+                if (!directed && u != v) targets[cursor[v]++] = u;
+            }
+            // 4) sắp xếp từng khoảng kề và loại trùng (nén tại chỗ)
+            int write = 0;
+            int begin = 0;
+            for (int v = 0; v < n; v++) {
+                int end = offsets[v + 1];
+                Arrays.sort(targets, begin, end);
+                offsets[v] = write;
+                for (int i = begin; i < end; i++) {
+                    if (i > begin && targets[i] == targets[i - 1]) continue;
+                    targets[write++] = targets[i];
+                }
+                begin = end;
+            }
+            offsets[n] = write;
+            if (write != targets.length) targets = Arrays.copyOf(targets, write);
+            return new Heap(n, directed, offsets, targets);
+        }
+    }
+}
@@ -0,0 +1,209 @@
+package gkltdt.dfs;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * DfsBatch — nhiều lượt duyệt trong một request (/dfs/batch), chạy song song trên một ForkJoinPool riêng.
+ * - Kernel O(V) mượn từ KernelPool dùng chung với /dfs, mỗi lá mượn một lần cho cả dải start của nó
+ * - starts chia thành chunk theo thứ tự; worker vừa duyệt vừa encode JSON của từng start thành byte[].
+ *   Chunk dừng nhận start mới khi tổng byte đã encode chạm {@code chunkBytes}; phần chưa chạy (và kết quả đã
+ *   xong nằm sau chỗ trống) chuyển sang chunk sau. Luồng request ghi chunk k trong lúc pool chạy chunk k+1,
+ *   nên bộ nhớ giữ kết quả tối đa khoảng 2 x chunkBytes cộng một kết quả mỗi worker, dù số đỉnh thăm mỗi start
+ *   chênh nhau thế nào
+ * - components: union-find (path halving + hợp theo kích thước) trên mọi cạnh, một lượt gần tuyến tính
+ *   thay cho V lượt DFS. Đồ thị có hướng cho thành phần liên thông yếu.
+ */
+final class DfsBatch {
+
+    static final String ORDER = "order";
+    static final String REACH = "reach";
+    static final String COMPONENTS = "components";
+
+    private static final int CHUNK_PER_THREAD = 64; // số start tối đa mỗi chunk, chia cho mỗi worker
+
+    private final ForkJoinPool pool;
+    private final KernelPool kernels;
+    private final long chunkBytes;
+
+    DfsBatch(int parallelism, KernelPool kernels, long chunkBytes) {
+        this.pool = new ForkJoinPool(parallelism);
+        this.kernels = kernels;
+        this.chunkBytes = Math.max(1, chunkBytes);
+    }
+
+    /**
+     * Ghi kết quả của từng start, cách nhau bởi dấu phẩy và đúng thứ tự, dạng
+     * {"start":s,"count":k,"vertices":[...]} — thứ tự VISIT (order) hoặc tập đỉnh đến được, tăng dần (reach).
+     * {@code starts == null} nghĩa là mọi đỉnh 0..n-1. Trả về tổng số đỉnh đã thăm.
+     */
+    long writeTraversals(CsrGraph g, int[] starts, boolean reach, OutputStream out) throws IOException {
+        int total = starts == null ? g.vertexCount() : starts.length;
+        int maxStarts = pool.getParallelism() * CHUNK_PER_THREAD;
+        long visited = 0;
+        Chunk pending = total > 0 ? submit(g, starts, reach, null, 0, Math.min(maxStarts, total)) : null;
+        try {
+            while (pending != null) {
+                Chunk done = pending;
+                done.join();
+                int ready = done.window.readyPrefix();
+                int next = done.window.base + ready;
+                pending = next < total ? submit(g, starts, reach, done.window, next, Math.min(next + maxStarts, total)) : null;
+                for (int i = 0; i < ready; i++) {
+                    if (done.window.base + i > 0) out.write(',');
+                    out.write(done.window.results[i]);
+                    visited += done.window.visitedCounts[i];
+                }
+            }
+        } finally {
+            if (pending != null) pending.cancel(false); // client ngắt kết nối: bỏ chunk chưa chạy
+        }
+        return visited;
+    }
+
+    /** Chunk [lo, hi); kết quả đã có của {@code carry} trong khoảng này được giữ lại, không duyệt lại. */
+    private Chunk submit(CsrGraph g, int[] starts, boolean reach, Window carry, int lo, int hi) {
+        Window w = new Window(lo, hi - lo);
+        if (carry != null) {
+            for (int i = lo, e = Math.min(hi, carry.base + carry.results.length); i < e; i++) {
+                byte[] r = carry.results[i - carry.base];
+                if (r == null) continue;
+                w.results[i - lo] = r;
+                w.visitedCounts[i - lo] = carry.visitedCounts[i - carry.base];
+                w.bytes.addAndGet(r.length);
+            }
+        }
+        Chunk c = new Chunk(g, starts, reach, w, lo, hi, Math.max(1, (hi - lo) / (pool.getParallelism() * 4)));
+        pool.execute(c);
+        return c;
+    }
+
+    /** Kết quả của một chunk cho starts[base, base + results.length); null = chưa chạy. */
+    private static final class Window {
+        final int base;
+        final byte[][] results;
+        final int[] visitedCounts;
+        final AtomicLong bytes = new AtomicLong();
+
+        Window(int base, int length) {
+            this.base = base;
+            this.results = new byte[length][];
+            this.visitedCounts = new int[length];
+        }
+
+        /** Số kết quả liền nhau tính từ đầu chunk: phần ghi được ngay theo thứ tự. */
+        int readyPrefix() {
+            int i = 0;
+            while (i < results.length && results[i] != null) i++;
+            return i;
+        }
+    }
+
+    /** Chia đôi khoảng [lo, hi) tới ngưỡng grain; mỗi lá duyệt tuần tự bằng một kernel mượn từ pool. */
+    private final class Chunk extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        final transient CsrGraph g; // task không bao giờ được serialize; CsrGraph không Serializable
+        final int[] starts;
+        final boolean reach;
+        final transient Window window;
+        final int lo, hi, grain;
+
+        Chunk(CsrGraph g, int[] starts, boolean reach, Window window, int lo, int hi, int grain) {
+            this.g = g;
+            this.starts = starts;
+            this.reach = reach;
+            this.window = window;
+            this.lo = lo;
+            this.hi = hi;
+            this.grain = grain;
+        }
+
+        @Override
+        protected void compute() {
+            if (hi - lo > grain) {
+                int mid = (lo + hi) >>> 1;
+                invokeAll(new Chunk(g, starts, reach, window, lo, mid, grain),
+                        new Chunk(g, starts, reach, window, mid, hi, grain));
+                return;
+            }
+            DfsKernel k = null;
+            try {
+                StringBuilder sb = new StringBuilder();
+                for (int i = lo; i < hi; i++) {
+                    int slot = i - window.base;
+                    if (window.results[slot] != null) continue; // mang sang từ chunk trước
+                    // start đầu chunk luôn chạy để mỗi chunk đều tiến được ít nhất một start
+                    if (slot > 0 && window.bytes.get() >= chunkBytes) break;
+                    if (k == null) k = kernels.acquire(g.vertexCount());
+                    int start = starts == null ? i : starts[i];
+                    k.run(g, start, null);
+                    int count = k.visitedCount();
+                    int[] vs = new int[count];
+                    for (int j = 0; j < count; j++) vs[j] = k.visitOrder(j);
+                    if (reach) Arrays.sort(vs);
+                    sb.setLength(0);
+                    sb.append("{\"start\":").append(start).append(",\"count\":").append(count).append(",\"vertices\":[");
+                    for (int j = 0; j < count; j++) {
+                        if (j > 0) sb.append(',');
+                        sb.append(vs[j]);
+                    }
+                    sb.append("]}");
+                    byte[] r = sb.toString().getBytes(StandardCharsets.US_ASCII);
+                    window.visitedCounts[slot] = count;
+                    window.results[slot] = r;
+                    window.bytes.addAndGet(r.length);
+                }
+            } finally {
+                if (k != null) kernels.release(k);
+            }
+        }
+    }
+
+    /** Nhãn thành phần liên thông 0..k-1 cho mỗi đỉnh, đánh số theo đỉnh nhỏ nhất của thành phần. */
+    static int[] componentLabels(CsrGraph g) {
+        int n = g.vertexCount();
+        int[] parent = new int[n];
+        int[] size = new int[n];
+        for (int v = 0; v < n; v++) {
+            parent[v] = v;
+            size[v] = 1;
+        }
+        boolean directed = g.isDirected();
+        for (int u = 0; u < n; u++) {
+            for (int i = g.begin(u), e = g.end(u); i < e; i++) {
+                int v = g.target(i);
+                if (!directed && v <= u) continue; // vô hướng: mỗi cạnh lưu hai chiều, chỉ hợp một lần
+                int ru = find(parent, u);
+                int rv = find(parent, v);
+                if (ru == rv) continue;
+                if (size[ru] < size[rv]) { int t = ru; ru = rv; rv = t; }
+                parent[rv] = ru;
+                size[ru] += size[rv];
+            }
+        }
+        int[] labels = size; // dùng lại mảng: size[] không còn cần nữa, mọi phần tử được ghi đè bên dưới
+        int[] rootLabel = new int[n];
+        Arrays.fill(rootLabel, -1);
+        int next = 0;
+        for (int v = 0; v < n; v++) {
+            int r = find(parent, v);
+            if (rootLabel[r] < 0) rootLabel[r] = next++;
+            labels[v] = rootLabel[r];
+        }
+        return labels;
+    }
+
+    private static int find(int[] parent, int v) {
+        while (parent[v] != v) {
+            parent[v] = parent[parent[v]]; // path halving
+            v = parent[v];
+        }
+        return v;
+    }
+}
@@ -0,0 +1,132 @@
+package gkltdt.dfs;
+
+/**
+ * DfsKernel — nhân duyệt DFS lặp dùng chung cho mọi đầu ra của /dfs.
+ * - Mỗi đỉnh giữ một con trỏ (cursor) vào khoảng kề CSR, không quét lại từ đầu: O(V+E)
+ * - Stack là mảng int nguyên thủy; trạng thái visited / on-stack là bitset long[]
+ * - Không cấp phát gì trong vòng lặp; một kernel có thể chạy lại nhiều lần (reset chỉ xoá đỉnh đã chạm)
+ *
+ * Thứ tự bước PUSH/VISIT/POP giống hệt thuật toán cũ: mỗi vòng lấy đỉnh trên cùng v,
+ * VISIT v nếu chưa thăm, rồi PUSH đỉnh kề nhỏ nhất chưa thăm và chưa nằm trên stack, nếu không có thì POP v.
+ * Con trỏ không bỏ sót: đỉnh kề đã bị bỏ qua (đã thăm / đang ở dưới v trên stack) không thể
+ * trở lại hợp lệ trong lúc v còn trên stack, và v không bao giờ được PUSH lại sau khi POP.
+ */
+public final class DfsKernel {
+
+    public static final int PUSH = 0;
+    public static final int VISIT = 1;
+    public static final int POP = 2;
+
+    private static final String[] ACTION_NAMES = {"PUSH", "VISIT", "POP"};
+
+    /**
+     * Nhận từng bước. Được gọi sau khi stack/visited đã cập nhật, nên listener có thể
+     * đọc trạng thái hiện tại qua kernel (stackDepth, stackFromTop, isVisited...).
+     */
+    public interface StepListener {
+        void onStep(int action, int node, DfsKernel kernel);
+    }
+
+    private final int n;
+    private final int[] stack;   // stack[0] là đáy, stack[depth-1] là đỉnh
+    private int depth;
+    private final int[] cursor;  // chỉ số tiếp theo cần xét trong khoảng kề của mỗi đỉnh đã thăm
+    private final long[] visited;
+    private final long[] onStack;
+    private final int[] order;   // thứ tự VISIT
+    private int visitedCount;
+
+    public DfsKernel(int vertexCount) {
+        this.n = vertexCount;
+        this.stack = new int[vertexCount];
+        this.cursor = new int[vertexCount];
+        this.visited = new long[(vertexCount + 63) >>> 6];
+        this.onStack = new long[(vertexCount + 63) >>> 6];
+        this.order = new int[vertexCount];
+    }
+
+    public static String actionName(int action) {
+        return ACTION_NAMES[action];
+    }
+
+    /**
+     * Duyệt DFS từ {@code start} trên {@code g}; {@code listener} có thể null.
+     * Đồ thị phải có đúng số đỉnh mà kernel được cấp phát.
+     */
+    public void run(CsrGraph g, int start, StepListener listener) {
+        if (g.vertexCount() != n) {
+            throw new IllegalArgumentException("Kernel cho " + n + " đỉnh, đồ thị có " + g.vertexCount());
+        }
+        if (start < 0 || start >= n) throw new IllegalArgumentException("start ngoài phạm vi: " + start);
+        reset();
+
+        push(start);
+        if (listener != null) listener.onStep(PUSH, start, this);
+
+        while (depth > 0) {
+            int v = stack[depth - 1];
+            if (!isVisited(v)) {
+                visited[v >>> 6] |= 1L << v;
+                order[visitedCount++] = v;
+                cursor[v] = g.begin(v);
+                if (listener != null) listener.onStep(VISIT, v, this);
+            }
+
+            int next = -1;
+            int i = cursor[v];
+            for (int e = g.end(v); i < e; i++) {
+                int u = g.target(i);
+                if (!isVisited(u) && !isOnStack(u)) {
+                    next = u;
+                    i++;
+                    break;
+                }
+            }
+            cursor[v] = i;
+
+            if (next >= 0) {
+                push(next);
+                if (listener != null) listener.onStep(PUSH, next, this);
+            } else {
+                depth--;
+                onStack[v >>> 6] &= ~(1L << v);
+                if (listener != null) listener.onStep(POP, v, this);
+            }
+        }
+    }
+
+    private void push(int v) {
+        stack[depth++] = v;
+        onStack[v >>> 6] |= 1L << v;
+    }
+
+    /** Xoá trạng thái lần chạy trước, chỉ chạm vào các đỉnh đã thăm / còn trên stack. */
+    private void reset() {
+        for (int i = 0; i < visitedCount; i++) {
+            int v = order[i];
+            visited[v >>> 6] &= ~(1L << v);
+        }
+        for (int i = 0; i < depth; i++) {
+            int v = stack[i];
+            onStack[v >>> 6] &= ~(1L << v);
+        }
+        visitedCount = 0;
+        depth = 0;
+    }
+
+    public int vertexCount() { return n; }
+
+    public boolean isVisited(int v) { return (visited[v >>> 6] & (1L << v)) != 0; }
+
+    public boolean isOnStack(int v) { return (onStack[v >>> 6] & (1L << v)) != 0; }
+
+    public int stackDepth() { return depth; }
+
+    /** Phần tử thứ i tính từ đỉnh stack (0 = đỉnh). */
+    public int stackFromTop(int i) { return stack[depth - 1 - i]; }
+
+    public int visitedCount() { return visitedCount; }
+
+    /** Đỉnh được VISIT thứ i (0-based). */
+    public int visitOrder(int i) { return order[i]; }
+}
@@ -0,0 +1,197 @@
+package gkltdt.dfs;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+/**
+ * DfsTrace — vết DFS dạng delta: mỗi bước chỉ lưu (action, node) trong mảng nguyên thủy (5 byte / bước).
+ * - Không chụp lại stack / visited ở từng bước; trạng thái được dựng lại khi cần qua {@link Cursor}
+ * - visited tại bước i = tiền tố của thứ tự VISIT (lưu hạng visit của từng đỉnh)
+ * - stack tại bước i = chuỗi cha trong cây DFS tính từ đỉnh trên cùng (lưu cha lúc PUSH)
+ * - Checkpoint định kỳ chỉ cần (đỉnh trên cùng, số đỉnh đã thăm): seek tới bước bất kỳ
+ *   tốn O(độ sâu stack + khoảng checkpoint)
+ * - Lúc ghi chỉ cấp phát theo số bước / số đỉnh đến được, không theo số đỉnh của đồ thị. Mảng theo id đỉnh
+ *   (cha, hạng visit) chỉ dựng khi cần replay ({@link #cursor()}), bằng một lượt qua các bước
+ */
+public final class DfsTrace {
+
+    public static final int DEFAULT_CHECKPOINT_INTERVAL = 256;
+
+    private final int n;
+    private final int start;
+    private final int checkpointInterval;
+
+    private byte[] actions = new byte[64];
+    private int[] nodes = new int[64];
+    private int size;
+
+    private int[] visitOrder = new int[16];
+    private int visitedCount;
+
+    // dựng lười cho replay (Cursor); vết chỉ được một luồng request dùng
+    private int[] parent;    // đỉnh nằm ngay dưới khi được PUSH, -1 nếu là gốc / chưa PUSH
+    private int[] visitRank; // thứ tự VISIT của đỉnh, -1 nếu không được thăm
+
+    // checkpoint j = trạng thái sau bước j * checkpointInterval
+    private int[] cpTop = new int[4];
+    private int[] cpVisited = new int[4];
+    private int cpCount;
+
+    private DfsTrace(int n, int start, int checkpointInterval) {
+        this.n = n;
+        this.start = start;
+        this.checkpointInterval = checkpointInterval;
+    }
+
+    /** Cấp phát một kernel O(V) mới mỗi lần gọi; đường nóng nên dùng bản nhận kernel tái sử dụng. */
+    public static DfsTrace record(CsrGraph g, int start) {
+        return record(g, start, new DfsKernel(g.vertexCount()), DEFAULT_CHECKPOINT_INTERVAL);
+    }
+
+    /** Ghi vết bằng một kernel có sẵn (có thể tái sử dụng giữa các lần gọi). */
+    public static DfsTrace record(CsrGraph g, int start, DfsKernel kernel, int checkpointInterval) {
+        if (checkpointInterval <= 0) throw new IllegalArgumentException("checkpointInterval <= 0");
+        DfsTrace trace = new DfsTrace(g.vertexCount(), start, checkpointInterval);
+        kernel.run(g, start, trace::append);
+        return trace;
+    }
+
+    private void append(int action, int node, DfsKernel k) {
+        if (size == actions.length) {
+            int cap = size * 2;
+            actions = Arrays.copyOf(actions, cap);
+            nodes = Arrays.copyOf(nodes, cap);
+        }
+        if (action == DfsKernel.VISIT) {
+            if (visitedCount == visitOrder.length) visitOrder = Arrays.copyOf(visitOrder, visitedCount * 2);
+            visitOrder[visitedCount++] = node;
+        }
+        actions[size] = (byte) action;
+        nodes[size] = node;
+        if (size % checkpointInterval == 0) {
+            if (cpCount == cpTop.length) {
+                cpTop = Arrays.copyOf(cpTop, cpCount * 2);
+                cpVisited = Arrays.copyOf(cpVisited, cpCount * 2);
+            }
+            cpTop[cpCount] = k.stackDepth() > 0 ? k.stackFromTop(0) : -1;
+            cpVisited[cpCount] = visitedCount;
+            cpCount++;
+        }
+        size++;
+    }
+
+    public int vertexCount() { return n; }
+
+    public int start() { return start; }
+
+    /** Số bước PUSH/VISIT/POP. */
+    public int size() { return size; }
+
+    public int action(int step) { return actions[step]; }
+
+    public int node(int step) { return nodes[step]; }
+
+    public int visitedCount() { return visitedCount; }
+
+    /** Ghi nguyên khối cột action (1 byte / bước, mã DfsKernel.PUSH/VISIT/POP). */
+    void writeActions(OutputStream out) throws IOException {
+        out.write(actions, 0, size);
+    }
+
+    /** Đỉnh được VISIT thứ i (0-based). */
+    public int visitOrder(int i) { return visitOrder[i]; }
+
+    public Cursor cursor() {
+        if (parent == null) buildIndex();
+        return new Cursor();
+    }
+
+    /** Cha lúc PUSH và hạng VISIT theo id đỉnh, dựng lại từ các bước (stack của PUSH = chuỗi đỉnh chưa POP). */
+    private void buildIndex() {
+        int[] par = new int[n];
+        int[] rank = new int[n];
+        Arrays.fill(par, -1);
+        Arrays.fill(rank, -1);
+        for (int i = 0; i < visitedCount; i++) rank[visitOrder[i]] = i;
+        int[] stack = new int[Math.max(1, Math.min(n, visitedCount))];
+        int depth = 0;
+        for (int s = 0; s < size; s++) {
+            int v = nodes[s];
+            if (actions[s] == DfsKernel.PUSH) {
+                par[v] = depth > 0 ? stack[depth - 1] : -1;
+                stack[depth++] = v;
+            } else if (actions[s] == DfsKernel.POP) {
+                depth--;
+            }
+        }
+        parent = par;
+        visitRank = rank;
+    }
+
+    // ---------------- replay ----------------
+
+    /**
+     * Dựng lại stack / visited tại một bước. Ban đầu đứng trước bước 0;
+     * {@link #next()} đi tiếp một bước trong O(1), {@link #seek(int)} nhảy tới bước bất kỳ.
+     */
+    public final class Cursor {
+        private final int[] stack = new int[Math.max(1, visitedCount)]; // stack[0] là đáy; mỗi đỉnh PUSH đều được VISIT
+        private int depth;
+        private int visited;
+        private int step = -1;
+
+        private Cursor() {}
+
+        /** Bước vừa áp dụng (-1 nếu chưa có). */
+        public int step() { return step; }
+
+        public boolean hasNext() { return step + 1 < size; }
+
+        public void next() {
+            apply(++step);
+        }
+
+        /** Đưa cursor về trạng thái ngay sau bước {@code target}. */
+        public void seek(int target) {
+            if (target < 0 || target >= size) throw new IndexOutOfBoundsException("step " + target + " / " + size);
+            if (target < step || target - step > checkpointInterval) {
+                int cp = target / checkpointInterval;
+                restore(cpTop[cp], cpVisited[cp]);
+                step = cp * checkpointInterval;
+            }
+            while (step < target) apply(++step);
+        }
+
+        private void restore(int top, int visitedCount) {
+            depth = 0;
+            for (int v = top; v >= 0; v = parent[v]) stack[depth++] = v;
+            for (int i = 0, j = depth - 1; i < j; i++, j--) {
+                int t = stack[i]; stack[i] = stack[j]; stack[j] = t;
+            }
+            visited = visitedCount;
+        }
+
+        private void apply(int s) {
+            switch (actions[s]) {
+                case DfsKernel.PUSH: stack[depth++] = nodes[s]; break;
+                case DfsKernel.VISIT: visited++; break;
+                default: depth--; break;
+            }
+        }
+
+        public int action() { return actions[step]; }
+
+        public int node() { return nodes[step]; }
+
+        public int stackDepth() { return depth; }
+
+        /** Phần tử thứ i tính từ đỉnh stack (0 = đỉnh). */
+        public int stackFromTop(int i) { return stack[depth - 1 - i]; }
+
+        public boolean isVisited(int v) {
+            int r = visitRank[v];
+            return r >= 0 && r < visited;
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package gkltdt.dfs;
+
+import java.util.Arrays;
+
+/**
+ * GraphAnalysis — cầu, khớp, chu trình và thứ tự tô-pô trong một lượt DFS lặp trên toàn đồ thị
+ * (gốc lần lượt là các đỉnh chưa thăm 0, 1, 2...).
+ * - Cùng kỹ thuật với DfsKernel: stack tường minh + con trỏ vào khoảng kề CSR của từng đỉnh,
+ *   nên không tràn call stack với đồ thị hàng triệu đỉnh
+ * - Chỉ dùng mảng int / long nguyên thủy cấp phát một lần (disc, low, parent, cursor, stack, bitset),
+ *   không cấp phát gì theo từng đỉnh
+ * - Vô hướng: low-link (Tarjan) cho cầu và khớp; chu trình = cạnh ngược tới tổ tiên khác cha
+ * - Có hướng: chu trình = cạnh ngược tới đỉnh còn trên stack; không có chu trình thì
+ *   thứ tự tô-pô = hậu thứ tự đảo ngược
+ * - cycleOnly dừng ngay ở chu trình đầu tiên; đồ thị có hướng cũng dừng sớm vì khi có chu trình
+ *   không còn thứ tự tô-pô để tính
+ */
+final class GraphAnalysis {
+
+    final boolean directed;
+    final boolean cycleOnly;
+    final int vertexCount;
+
+    private int visitedCount;
+    private int[] cycle;           // đường đi u -> ... -> v của chu trình đầu tiên (cạnh v -> u đóng lại), null nếu không có
+    private int[] bridges = new int[16]; // từng cặp (cha, con) trong cây DFS
+    private int bridgeCount;
+    private long[] articulation;   // bitset, chỉ với đồ thị vô hướng và !cycleOnly
+    private int[] topologicalOrder; // chỉ với đồ thị có hướng không chu trình và !cycleOnly
+
+    private GraphAnalysis(CsrGraph g, boolean cycleOnly) {
+        this.directed = g.isDirected();
+        this.cycleOnly = cycleOnly;
+        this.vertexCount = g.vertexCount();
+    }
+
+    static GraphAnalysis run(CsrGraph g, boolean cycleOnly) {
+        GraphAnalysis a = new GraphAnalysis(g, cycleOnly);
+        a.dfs(g);
+        return a;
+    }
+
+    private void dfs(CsrGraph g) {
+        int n = vertexCount;
+        boolean lowLink = !directed && !cycleOnly;
+        boolean topo = directed && !cycleOnly;
+        int[] disc = new int[n];   // thời điểm khám phá, 0 = chưa thăm
+        int[] low = lowLink ? new int[n] : null;
+        int[] parent = new int[n];
+        int[] cursor = new int[n];
+        int[] stack = new int[n];
+        long[] onStack = new long[(n + 63) >>> 6];
+        if (lowLink) articulation = new long[(n + 63) >>> 6];
+        int[] post = topo ? new int[n] : null; // hậu thứ tự, ghi từ cuối về đầu
+        int postPos = n;
+        int time = 0;
+
+        for (int root = 0; root < n; root++) {
+            if (disc[root] != 0) continue;
+            int depth = 0;
+            int rootChildren = 0;
+            disc[root] = ++time;
+            if (lowLink) low[root] = time;
+            parent[root] = -1;
+            cursor[root] = g.begin(root);
+            stack[depth++] = root;
+            onStack[root >>> 6] |= 1L << root;
+            visitedCount++;
+
+            while (depth > 0) {
+                int v = stack[depth - 1];
+                if (cursor[v] < g.end(v)) {
+                    int u = g.target(cursor[v]++);
+                    if (disc[u] == 0) { // cạnh cây
+                        disc[u] = ++time;
+                        if (lowLink) low[u] = time;
+                        parent[u] = v;
+                        cursor[u] = g.begin(u);
+                        stack[depth++] = u;
+                        onStack[u >>> 6] |= 1L << u;
+                        visitedCount++;
+                        if (v == root) rootChildren++;
+                        continue;
+                    }
+                    // cạnh ngược: vô hướng thì tới tổ tiên khác cha (hoặc khuyên), có hướng thì tới đỉnh còn trên stack
+                    boolean back = directed
+                            ? (onStack[u >>> 6] & (1L << u)) != 0
+                            : u != parent[v] && disc[u] <= disc[v];
+                    if (!back) continue;
+                    if (lowLink && disc[u] < low[v]) low[v] = disc[u];
+                    if (cycle == null) {
+                        int i = depth - 1;
+                        while (stack[i] != u) i--;
+                        cycle = Arrays.copyOfRange(stack, i, depth);
+                        if (!lowLink) return; // chỉ cần chu trình, hoặc có hướng: không còn thứ tự tô-pô
+                    }
+                    continue;
+                }
+
+                // hết đỉnh kề: POP v
+                depth--;
+                onStack[v >>> 6] &= ~(1L << v);
+                if (topo) post[--postPos] = v;
+                int p = parent[v];
+                if (lowLink && p >= 0) {
+                    if (low[v] < low[p]) low[p] = low[v];
+                    if (low[v] > disc[p]) addBridge(p, v);
+                    if (p != root && low[v] >= disc[p]) articulation[p >>> 6] |= 1L << p;
+                }
+            }
+            if (lowLink && rootChildren >= 2) articulation[root >>> 6] |= 1L << root;
+        }
+        if (topo) topologicalOrder = post;
+    }
+
+    private void addBridge(int p, int v) {
+        if (2 * bridgeCount + 2 > bridges.length) {
+            bridges = Arrays.copyOf(bridges, (int) Math.min(Integer.MAX_VALUE - 8, 2L * bridges.length));
+        }
+        bridges[2 * bridgeCount] = p;
+        bridges[2 * bridgeCount + 1] = v;
+        bridgeCount++;
+    }
+
+    int visitedCount() { return visitedCount; }
+
+    boolean hasCycle() { return cycle != null; }
+
+    /** Chu trình đầu tiên tìm thấy: cycle[0] -> cycle[1] -> ... -> cycle[k-1] -> cycle[0]; null nếu không có. */
+    int[] cycle() { return cycle; }
+
+    int bridgeCount() { return bridgeCount; }
+
+    /** Cầu thứ i = (bridgeParent(i), bridgeChild(i)), cha / con trong cây DFS. */
+    int bridgeParent(int i) { return bridges[2 * i]; }
+
+    int bridgeChild(int i) { return bridges[2 * i + 1]; }
+
+    boolean isArticulation(int v) { return (articulation[v >>> 6] & (1L << v)) != 0; }
+
+    /** Thứ tự tô-pô; null nếu đồ thị vô hướng, có chu trình hoặc chạy với cycleOnly. */
+    int[] topologicalOrder() { return topologicalOrder; }
+}
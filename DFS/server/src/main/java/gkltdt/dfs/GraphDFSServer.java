@@ -0,0 +1,881 @@
+package gkltdt.dfs;
+
+import com.sun.net.httpserver.HttpServer;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.Headers;
+
+import java.io.*;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * GraphDFSServer
+ * - Serve UI tại GET /
+ * - API GET /dfs?start=<v>&format=json  (JSON, snapshot stack/visited từng bước)
+ * - API GET /dfs?start=<v>&format=delta (JSON gọn: chỉ action/node từng bước, không kèm danh sách kề)
+ * - API GET /dfs?start=<v>&format=bin   (nhị phân theo cột, dùng cho UI; bố cục xem BinaryTrace)
+ * - Backwards-compatible text output at /dfs?start=<v>
+ * - GET/POST/DELETE /graph/edges: xem / thêm / xoá lô cạnh (mỗi lô làm đổi đồ thị tạo phiên bản mới)
+ * - GET /dfs/batch?starts=1,5,9|all&mode=order|reach|components: nhiều lượt duyệt song song trong một response
+ * - GET /graph/analysis[?only=cycle]: cầu, khớp, chu trình, thứ tự tô-pô (xem GraphAnalysis)
+ * - GET /metrics: số đo request / lượt duyệt dạng Prometheus (xem ServerMetrics)
+ */
+public class GraphDFSServer {
+
+    private final GraphStore store; // snapshot bất biến + phiên bản, thay bằng copy-on-write
+    // kernel O(V) dùng lại giữa các lượt /dfs và worker /dfs/batch; số kernel rảnh giữ lại = 2 x số CPU
+    private final KernelPool kernels = new KernelPool(2 * Runtime.getRuntime().availableProcessors());
+
+    public GraphDFSServer() {
+        this(buildDefaultGraph());
+    }
+
+    public GraphDFSServer(CsrGraph graph) {
+        this.store = new GraphStore(graph);
+    }
+
+    private static CsrGraph buildDefaultGraph() {
+        // Xây đồ thị theo Hình 1.1 (vô hướng, đỉnh 0..8) — sửa nếu đề yêu cầu khác
+        CsrGraph.Builder b = CsrGraph.builder(9);
+        b.addEdge(0,1); b.addEdge(0,7);
+        b.addEdge(1,2); b.addEdge(1,7);
+        b.addEdge(2,3); b.addEdge(2,8); b.addEdge(2,5);
+        b.addEdge(3,4); b.addEdge(3,5);
+        b.addEdge(4,5);
+        b.addEdge(5,6);
+        b.addEdge(6,7); b.addEdge(6,8);
+        b.addEdge(7,8);
+        return b.build(); // CSR: khoảng kề đã sắp xếp sẵn
+    }
+
+    // ---------------- JSON-producing DFS (iterative) ----------------
+    // Mọi định dạng đều ghi thẳng vào Writer: handler truyền writer bọc OutputStream của response
+    // (chunked), còn các hàm trả String dùng StringWriter.
+
+    private String escapeJson(String s) {
+        return s.replace("\\", "\\\\").replace("\"", "\\\"");
+    }
+
+    String adjacencyJson() {
+        StringWriter sw = new StringWriter();
+        try {
+            writeAdjacencyJson(store.current().graph(), sw);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); // StringWriter không ném IOException
+        }
+        return sw.toString();
+    }
+
+    private static void writeAdjacencyJson(CsrGraph graph, Writer out) throws IOException {
+        out.write("{");
+        int n = graph.vertexCount();
+        for (int i = 0; i < n; i++) {
+            out.write("\"");
+            out.write(Integer.toString(i));
+            out.write("\":[");
+            for (int j = graph.begin(i), e = graph.end(i); j < e; j++) {
+                if (j > graph.begin(i)) out.write(",");
+                out.write(Integer.toString(graph.target(j)));
+            }
+            out.write("]");
+            if (i < n-1) out.write(",");
+        }
+        out.write("}");
+    }
+
+    String dfsIterativeJson(int start) {
+        StringWriter sw = new StringWriter();
+        try {
+            GraphStore.Snapshot snap = store.current();
+            writeDfsJson(snap, kernels.record(snap.graph(), start), sw);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return sw.toString();
+    }
+
+    /** Vết DFS dạng nhị phân theo cột (format=bin), bố cục xem {@link BinaryTrace}. */
+    byte[] dfsIterativeBin(int start) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try {
+            GraphStore.Snapshot snap = store.current();
+            BinaryTrace.write(kernels.record(snap.graph(), start), snap.version(), out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); // ByteArrayOutputStream không ném IOException
+        }
+        return out.toByteArray();
+    }
+
+    private void writeDfsJson(GraphStore.Snapshot snap, DfsTrace trace, Writer out) throws IOException {
+        out.write("{");
+        out.write("\"version\":");
+        out.write(Long.toString(snap.version()));
+        out.write(",\"adj\":");
+        writeAdjacencyJson(snap.graph(), out);
+        out.write(",\"start\":");
+        out.write(Integer.toString(trace.start()));
+        out.write(",\"steps\":[");
+        // snapshot stack/visited của từng bước được dựng lại từ vết delta, không lưu sẵn
+        DfsTrace.Cursor c = trace.cursor();
+        while (c.hasNext()) {
+            c.next();
+            if (c.step() > 0) out.write(",");
+            out.write("{\"action\":\"");
+            out.write(escapeJson(DfsKernel.actionName(c.action())));
+            out.write("\",\"node\":");
+            out.write(Integer.toString(c.node()));
+            out.write(",\"stack\":[");
+            for (int i = 0; i < c.stackDepth(); i++) {
+                if (i > 0) out.write(",");
+                out.write(Integer.toString(c.stackFromTop(i)));
+            }
+            out.write("],\"visited\":[");
+            for (int v = 0; v < trace.vertexCount(); v++) {
+                if (v > 0) out.write(",");
+                out.write(c.isVisited(v) ? "true" : "false");
+            }
+            out.write("]}");
+        }
+        out.write("],\"visitedOrder\":");
+        writeVisitOrder(trace, out);
+        out.write("}");
+    }
+
+    /**
+     * format=delta: chỉ gửi thay đổi của từng bước, client tự dựng lại stack/visited.
+     * actions[i] là mã trong actionNames (0=PUSH, 1=VISIT, 2=POP), nodes[i] là đỉnh của bước i.
+     * Không kèm danh sách kề (như format=bin): kích thước chỉ theo phần đồ thị đi tới được,
+     * client lấy "adj" qua GET /graph/edges khi "version" đổi.
+     */
+    private void writeDfsDeltaJson(GraphStore.Snapshot snap, DfsTrace trace, Writer out) throws IOException {
+        out.write("{");
+        out.write("\"version\":");
+        out.write(Long.toString(snap.version()));
+        out.write(",\"start\":");
+        out.write(Integer.toString(trace.start()));
+        out.write(",\"format\":\"delta\"");
+        out.write(",\"actionNames\":[\"PUSH\",\"VISIT\",\"POP\"]");
+        out.write(",\"actions\":[");
+        for (int i = 0; i < trace.size(); i++) {
+            if (i > 0) out.write(",");
+            out.write('0' + trace.action(i));
+        }
+        out.write("],\"nodes\":[");
+        for (int i = 0; i < trace.size(); i++) {
+            if (i > 0) out.write(",");
+            out.write(Integer.toString(trace.node(i)));
+        }
+        out.write("],\"visitedOrder\":");
+        writeVisitOrder(trace, out);
+        out.write("}");
+    }
+
+    private static void writeVisitOrder(DfsTrace trace, Writer out) throws IOException {
+        out.write("[");
+        for (int i = 0; i < trace.visitedCount(); i++) {
+            if (i > 0) out.write(",");
+            out.write(Integer.toString(trace.visitOrder(i)));
+        }
+        out.write("]");
+    }
+
+    // ---------------- HTTP server & handlers ----------------
+
+    HttpServer startHttpServer(ServerConfig config) throws IOException {
+        // Header và body được ghi thành hai lần write: với Nagle + delayed ACK mỗi request keep-alive
+        // bị treo ~40ms. HttpServer chỉ đọc property này một lần, trước khi tạo server đầu tiên.
+        if (config.tcpNoDelay && System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+        HttpServer server = HttpServer.create(new InetSocketAddress(config.port), 0);
+        // Lượt duyệt + render chạy trên pool riêng tối đa DFS_MAX_TRAVERSALS thread: đầy thì trả 503 ngay,
+        // thread của HttpServer chỉ chờ nên luôn còn chỗ cho GET / và /metrics
+        TraversalPool traversals = new TraversalPool(config.maxTraversals);
+
+        ResponseCache responseCache = new ResponseCache(config.cacheBytes, config.cacheEntryBytes);
+        ServerMetrics metrics = new ServerMetrics();
+        DfsBatch batch = new DfsBatch(config.batchThreads, kernels, config.batchChunkBytes);
+
+        // Serve UI at "/" (trang tĩnh: mã hoá + gzip một lần lúc khởi động)
+        ResponseCache.Entry indexPage = ResponseCache.Entry.ofStatic("text/html; charset=utf-8",
+                indexHtml().getBytes(StandardCharsets.UTF_8));
+        server.createContext("/", new HttpHandler() {
+            @Override
+            public void handle(HttpExchange exchange) throws IOException {
+                sendEntry(exchange, indexPage);
+            }
+        }).getFilters().add(metrics.filter("/"));
+
+        // Serve DFS output (text or JSON) at "/dfs"
+        server.createContext("/dfs", new HttpHandler() {
+            @Override
+            public void handle(HttpExchange exchange) throws IOException {
+                URI uri = exchange.getRequestURI();
+                String query = uri.getQuery();
+                Map<String, String> params = parseQuery(query);
+                String startStr = params.get("start");
+                String format = params.getOrDefault("format", "");
+                // Một snapshot cho cả request: ghi đồng thời không ảnh hưởng lượt duyệt đang chạy
+                GraphStore.Snapshot snap = store.current();
+                int n = snap.graph().vertexCount();
+                if (startStr == null) {
+                    sendText(exchange, 200, "Giao thức: /dfs?start=<đỉnh 0.." + (n-1) + ">&format=json|delta|bin\n");
+                    return;
+                }
+                int start;
+                try {
+                    start = Integer.parseInt(startStr);
+                } catch (NumberFormatException ex) {
+                    sendText(exchange, 400, "Lỗi: start phải là số nguyên 0.." + (n-1) + "\n");
+                    return;
+                }
+                if (start < 0 || start >= n) {
+                    sendText(exchange, 400, "Lỗi: start ngoài phạm vi 0.." + (n-1) + "\n");
+                    return;
+                }
+
+                // Kết quả chỉ phụ thuộc (phiên bản đồ thị, start, định dạng): trả từ cache hoặc 304
+                exchange.getResponseHeaders().add("X-Graph-Version", Long.toString(snap.version()));
+                String kind = formatKind(format);
+                ResponseCache.Key key = new ResponseCache.Key(snap.version(), start, kind);
+                serveCached(exchange, responseCache, traversals, config, metrics, key, contentType(kind), () -> {
+                    long t0 = System.nanoTime();
+                    DfsTrace trace = kernels.record(snap.graph(), start);
+                    metrics.traversal(trace, System.nanoTime() - t0);
+                    return os -> renderDfs(snap, trace, kind, os);
+                });
+            }
+        }).getFilters().add(metrics.filter("/dfs"));
+
+        // Nhiều lượt duyệt trong một request tại "/dfs/batch" (ForkJoinPool, kết quả stream theo thứ tự starts).
+        // Cả request chỉ chiếm một chỗ trong TraversalPool: độ song song đã bị giới hạn bởi DFS_BATCH_THREADS.
+        server.createContext("/dfs/batch", new HttpHandler() {
+            @Override
+            public void handle(HttpExchange exchange) throws IOException {
+                Map<String, String> params = parseQuery(exchange.getRequestURI().getQuery());
+                String mode = params.getOrDefault("mode", DfsBatch.ORDER);
+                String startsStr = params.get("starts");
+                GraphStore.Snapshot snap = store.current();
+                CsrGraph g = snap.graph();
+                int n = g.vertexCount();
+                boolean components = DfsBatch.COMPONENTS.equals(mode);
+                if (!components && !DfsBatch.ORDER.equals(mode) && !DfsBatch.REACH.equals(mode)) {
+                    sendText(exchange, 400, "Lỗi: mode phải là order, reach hoặc components\n");
+                    return;
+                }
+                if (!components && startsStr == null) {
+                    sendText(exchange, 200, "Giao thức: /dfs/batch?starts=<v1,v2,...|all>&mode=order|reach"
+                            + " hoặc /dfs/batch?mode=components (đỉnh 0.." + (n-1) + ")\n");
+                    return;
+                }
+                int[] starts;
+                try {
+                    starts = components ? null : parseStarts(startsStr, n);
+                } catch (IllegalArgumentException ex) {
+                    sendText(exchange, 400, "Lỗi: " + ex.getMessage() + "\n");
+                    return;
+                }
+
+                admit(exchange, traversals, config, () -> {
+                    boolean gzip = acceptsGzip(exchange);
+                    Headers h = exchange.getResponseHeaders();
+                    h.add("X-Graph-Version", Long.toString(snap.version()));
+                    h.add("Content-Type", "application/json; charset=utf-8");
+                    h.add("Cache-Control", "no-cache");
+                    h.add("Vary", "Accept-Encoding");
+                    if (gzip) h.add("Content-Encoding", "gzip");
+                    exchange.sendResponseHeaders(200, 0);
+                    OutputStream os = exchange.getResponseBody();
+                    if (gzip) os = new GZIPOutputStream(os, STREAM_BUFFER_CHARS);
+                    try (OutputStream out = new BufferedOutputStream(os, STREAM_BUFFER_CHARS)) {
+                        String head = "{\"version\":" + snap.version() + ",\"mode\":\"" + mode + "\"";
+                        if (components) {
+                            int[] labels = DfsBatch.componentLabels(g);
+                            int count = 0;
+                            for (int l : labels) count = Math.max(count, l + 1);
+                            out.write((head + ",\"vertices\":" + n + ",\"components\":" + count + ",\"labels\":[")
+                                    .getBytes(StandardCharsets.US_ASCII));
+                            for (int v = 0; v < n; v++) {
+                                if (v > 0) out.write(',');
+                                out.write(Integer.toString(labels[v]).getBytes(StandardCharsets.US_ASCII));
+                            }
+                        } else {
+                            int total = starts == null ? n : starts.length;
+                            out.write((head + ",\"count\":" + total + ",\"results\":[").getBytes(StandardCharsets.US_ASCII));
+                            long visited = batch.writeTraversals(g, starts, DfsBatch.REACH.equals(mode), out);
+                            metrics.traversals(total, visited);
+                        }
+                        out.write(']');
+                        out.write('}');
+                    }
+                });
+            }
+        }).getFilters().add(metrics.filter("/dfs/batch"));
+
+        // Phân tích toàn đồ thị tại "/graph/analysis": một lượt DFS lặp, kết quả chỉ phụ thuộc phiên bản đồ thị
+        // nên cache / ETag như /dfs. only=cycle dừng ngay ở chu trình đầu tiên.
+        server.createContext("/graph/analysis", new HttpHandler() {
+            @Override
+            public void handle(HttpExchange exchange) throws IOException {
+                Map<String, String> params = parseQuery(exchange.getRequestURI().getQuery());
+                String only = params.get("only");
+                if (only != null && !only.equals("cycle")) {
+                    sendText(exchange, 400, "Lỗi: only chỉ nhận giá trị cycle\n");
+                    return;
+                }
+                boolean cycleOnly = only != null;
+                GraphStore.Snapshot snap = store.current();
+                exchange.getResponseHeaders().add("X-Graph-Version", Long.toString(snap.version()));
+                ResponseCache.Key key = new ResponseCache.Key(snap.version(), -1, cycleOnly ? "cycle" : "analysis");
+                serveCached(exchange, responseCache, traversals, config, metrics, key,
+                        "application/json; charset=utf-8", () -> {
+                    long t0 = System.nanoTime();
+                    GraphAnalysis analysis = GraphAnalysis.run(snap.graph(), cycleOnly);
+                    metrics.analysis(analysis, System.nanoTime() - t0);
+                    return os -> {
+                        Writer out = streamWriter(os);
+                        writeAnalysisJson(snap, analysis, out);
+                        out.flush();
+                    };
+                });
+            }
+        }).getFilters().add(metrics.filter("/graph/analysis"));
+
+        // Đọc / sửa đồ thị tại "/graph/edges": GET trả danh sách kề, POST thêm lô cạnh, DELETE xoá lô cạnh.
+        // Mỗi lô làm đổi đồ thị tạo một snapshot mới (phiên bản + 1); lượt duyệt đang chạy vẫn đọc snapshot cũ.
+        // Lô không đổi gì trả lại phiên bản hiện tại.
+        server.createContext("/graph/edges", new HttpHandler() {
+            @Override
+            public void handle(HttpExchange exchange) throws IOException {
+                String method = exchange.getRequestMethod();
+                if ("GET".equalsIgnoreCase(method)) {
+                    GraphStore.Snapshot snap = store.current();
+                    exchange.getResponseHeaders().add("X-Graph-Version", Long.toString(snap.version()));
+                    exchange.getResponseHeaders().add("Content-Type", "application/json; charset=utf-8");
+                    exchange.sendResponseHeaders(200, 0);
+                    try (Writer out = streamWriter(exchange.getResponseBody())) {
+                        writeGraphJson(snap, out);
+                    }
+                    return;
+                }
+                boolean add = "POST".equalsIgnoreCase(method);
+                if (!add && !"DELETE".equalsIgnoreCase(method)) {
+                    exchange.getResponseHeaders().add("Allow", "GET, POST, DELETE");
+                    sendText(exchange, 405, "Lỗi: chỉ hỗ trợ GET, POST, DELETE\n");
+                    return;
+                }
+                int[][] edges;
+                // id mới chỉ được mở rộng đồ thị tới DFS_MAX_VERTICES đỉnh; mọi lượt /dfs cấp phát theo số đỉnh
+                int limit = Math.max(config.maxVertices, store.current().graph().vertexCount());
+                try (InputStream in = exchange.getRequestBody()) {
+                    edges = parseEdgeList(in, limit, config.maxBatchEdges);
+                } catch (BatchTooLargeException ex) {
+                    sendText(exchange, 413, "Lỗi: " + ex.getMessage() + "\n");
+                    return;
+                } catch (IllegalArgumentException ex) {
+                    sendText(exchange, 400, "Lỗi: " + ex.getMessage() + "\n");
+                    return;
+                }
+                GraphStore.Update update = add ? store.addEdges(edges[0], edges[1]) : store.removeEdges(edges[0], edges[1]);
+                GraphStore.Snapshot snap = update.snapshot();
+                String resp = "{\"version\":" + snap.version()
+                        + ",\"vertices\":" + snap.graph().vertexCount()
+                        + ",\"edges\":" + snap.graph().edgeCount()
+                        + ",\"" + (add ? "added" : "removed") + "\":" + update.edgesChanged() + "}";
+                byte[] body = resp.getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().add("X-Graph-Version", Long.toString(snap.version()));
+                exchange.getResponseHeaders().add("Content-Type", "application/json; charset=utf-8");
+                exchange.sendResponseHeaders(200, body.length);
+                try (OutputStream os = exchange.getResponseBody()) {
+                    os.write(body);
+                }
+            }
+        }).getFilters().add(metrics.filter("/graph/edges"));
+
+        // Số đo dạng Prometheus tại "/metrics" (bản thân /metrics không được đo)
+        server.createContext("/metrics", new HttpHandler() {
+            @Override
+            public void handle(HttpExchange exchange) throws IOException {
+                exchange.getResponseHeaders().add("Content-Type", ServerMetrics.CONTENT_TYPE);
+                exchange.getResponseHeaders().add("Cache-Control", "no-store");
+                exchange.sendResponseHeaders(200, 0);
+                try (Writer out = streamWriter(exchange.getResponseBody())) {
+                    metrics.write(out);
+                }
+            }
+        });
+
+        server.setExecutor(config.createExecutor());
+        System.out.println("Server started at http://0.0.0.0:" + server.getAddress().getPort()
+                + " (executor=" + config.executor + ", maxTraversals=" + config.maxTraversals + ")");
+        server.start();
+        return server;
+    }
+
+    private static void writeGraphJson(GraphStore.Snapshot snap, Writer out) throws IOException {
+        CsrGraph g = snap.graph();
+        out.write("{\"version\":" + snap.version());
+        out.write(",\"directed\":" + g.isDirected());
+        out.write(",\"vertices\":" + g.vertexCount());
+        out.write(",\"edges\":" + g.edgeCount());
+        out.write(",\"adj\":");
+        writeAdjacencyJson(g, out);
+        out.write("}");
+    }
+
+    /**
+     * {"version","directed","vertices","edges","hasCycle","cycle":[u,...,v]|null, rồi (trừ khi only=cycle)
+     * vô hướng: "bridges":[[cha,con],...],"articulationPoints":[...]; có hướng: "topologicalOrder":[...]|null}.
+     * cycle là chu trình đầu tiên DFS gặp, cạnh v -> u khép kín.
+     */
+    private static void writeAnalysisJson(GraphStore.Snapshot snap, GraphAnalysis a, Writer out) throws IOException {
+        CsrGraph g = snap.graph();
+        out.write("{\"version\":" + snap.version());
+        out.write(",\"directed\":" + a.directed);
+        out.write(",\"vertices\":" + a.vertexCount);
+        out.write(",\"edges\":" + g.edgeCount());
+        out.write(",\"hasCycle\":" + a.hasCycle());
+        out.write(",\"cycle\":");
+        writeIntArray(a.cycle(), out);
+        if (!a.cycleOnly) {
+            if (a.directed) {
+                out.write(",\"topologicalOrder\":");
+                writeIntArray(a.topologicalOrder(), out);
+            } else {
+                out.write(",\"bridges\":[");
+                for (int i = 0; i < a.bridgeCount(); i++) {
+                    if (i > 0) out.write(',');
+                    out.write("[" + a.bridgeParent(i) + "," + a.bridgeChild(i) + "]");
+                }
+                out.write("],\"articulationPoints\":[");
+                boolean first = true;
+                for (int v = 0; v < a.vertexCount; v++) {
+                    if (!a.isArticulation(v)) continue;
+                    if (!first) out.write(',');
+                    out.write(Integer.toString(v));
+                    first = false;
+                }
+                out.write("]");
+            }
+        }
+        out.write("}");
+    }
+
+    private static void writeIntArray(int[] a, Writer out) throws IOException {
+        if (a == null) {
+            out.write("null");
+            return;
+        }
+        out.write('[');
+        for (int i = 0; i < a.length; i++) {
+            if (i > 0) out.write(',');
+            out.write(Integer.toString(a[i]));
+        }
+        out.write(']');
+    }
+
+    /**
+     * Đọc lô cạnh từ thân request: mọi số nguyên không âm, lấy theo cặp (u, v); ký tự khác là dấu phân cách.
+     * Vì vậy chấp nhận "0 1\n2 3", "0-1,2-3" hay JSON [[0,1],[2,3]]. Trả về {us, vs}.
+     * '-' / '+' không đứng ngay sau chữ số mà đứng ngay trước chữ số là dấu của số: bị từ chối, không bỏ qua.
+     * Quá {@code maxEdges} cặp thì dừng đọc ngay (BatchTooLargeException): bộ nhớ đệm không vượt 2 x maxEdges int.
+     */
+    static int[][] parseEdgeList(InputStream in, int maxVertices, int maxEdges) throws IOException {
+        int[] nums = new int[(int) Math.min(64, 2L * maxEdges)];
+        int count = 0;
+        long cur = -1;
+        boolean sign = false;
+        InputStream bin = new BufferedInputStream(in, 64 * 1024);
+        for (int c = bin.read(); ; c = bin.read()) {
+            if (c >= '0' && c <= '9') {
+                if (sign) throw new IllegalArgumentException("id đỉnh không được có dấu (âm / +)");
+                cur = (cur < 0 ? 0 : cur * 10) + (c - '0');
+                if (cur >= maxVertices) throw new IllegalArgumentException("id đỉnh phải < " + maxVertices);
+                continue;
+            }
+            sign = cur < 0 && (c == '-' || c == '+');
+            if (cur >= 0) {
+                if (count == nums.length) {
+                    if (count >= 2L * maxEdges) {
+                        throw new BatchTooLargeException("lô quá lớn, tối đa " + maxEdges + " cạnh mỗi request");
+                    }
+                    nums = Arrays.copyOf(nums, (int) Math.min(2L * maxEdges, count * 2L));
+                }
+                nums[count++] = (int) cur;
+                cur = -1;
+            }
+            if (c < 0) break;
+        }
+        if (count == 0) throw new IllegalArgumentException("không có cạnh nào trong thân request");
+        if (count % 2 != 0) throw new IllegalArgumentException("số lượng id đỉnh phải chẵn (các cặp u v)");
+        int[] us = new int[count / 2];
+        int[] vs = new int[count / 2];
+        for (int i = 0; i < us.length; i++) {
+            us[i] = nums[2 * i];
+            vs[i] = nums[2 * i + 1];
+        }
+        return new int[][] {us, vs};
+    }
+
+    /** Thân POST / DELETE /graph/edges có nhiều cạnh hơn DFS_MAX_BATCH_EDGES: handler trả 413. */
+    static final class BatchTooLargeException extends IllegalArgumentException {
+        private static final long serialVersionUID = 1L;
+
+        BatchTooLargeException(String message) {
+            super(message);
+        }
+    }
+
+    private static String formatKind(String format) {
+        if ("json".equalsIgnoreCase(format)) return "json";
+        if ("delta".equalsIgnoreCase(format)) return "delta";
+        if ("bin".equalsIgnoreCase(format)) return "bin";
+        return "text";
+    }
+
+    private static String contentType(String kind) {
+        if ("bin".equals(kind)) return BinaryTrace.CONTENT_TYPE;
+        return "text".equals(kind) ? "text/plain; charset=utf-8" : "application/json; charset=utf-8";
+    }
+
+    private void renderDfs(GraphStore.Snapshot snap, DfsTrace trace, String kind, OutputStream os) throws IOException {
+        if ("bin".equals(kind)) {
+            BinaryTrace.write(trace, snap.version(), os);
+            return;
+        }
+        Writer out = streamWriter(os);
+        if ("delta".equals(kind)) {
+            writeDfsDeltaJson(snap, trace, out);
+        } else if ("json".equals(kind)) {
+            writeDfsJson(snap, trace, out);
+        } else {
+            // fallback: plain text (compat)
+            writeAdjacencyText(snap.graph(), out);
+            out.write("\n");
+            writeDfsTrace(trace, out);
+            out.write("\n");
+        }
+        out.flush();
+    }
+
+    /** Chạy lượt duyệt trên TraversalPool; pool đã đủ DFS_MAX_TRAVERSALS lượt thì trả 503 + Retry-After ngay. */
+    private static void admit(HttpExchange exchange, TraversalPool traversals, ServerConfig config,
+                              TraversalPool.Work work) throws IOException {
+        if (traversals.run(work)) return;
+        exchange.getResponseHeaders().add("Retry-After", Integer.toString(config.retryAfterSeconds));
+        sendText(exchange, 503, "Máy chủ đang bận, thử lại sau " + config.retryAfterSeconds + " giây\n");
+    }
+
+    /** Thân response ghi dần ra một OutputStream: dùng chung cho bản cache và bản stream. */
+    private interface Body {
+        void writeTo(OutputStream os) throws IOException;
+    }
+
+    /** Lượt duyệt / phân tích chạy trên TraversalPool; trả Body ghi kết quả của nó. */
+    private interface Computation {
+        Body run() throws IOException;
+    }
+
+    /**
+     * Response chỉ phụ thuộc {@code key} (/dfs, /graph/analysis): trả từ cache, 304 nếu client đã có bản này,
+     * còn lại chạy {@code computation} qua admit, render đúng một lần rồi cache hoặc stream (xem renderOrStream).
+     */
+    private static void serveCached(HttpExchange exchange, ResponseCache cache, TraversalPool traversals,
+                                    ServerConfig config, ServerMetrics metrics, ResponseCache.Key key,
+                                    String contentType, Computation computation) throws IOException {
+        ResponseCache.Entry cached = cache.get(key);
+        if (cached != null) {
+            sendEntry(exchange, cached);
+            return;
+        }
+        String etag = ResponseCache.etag(key);
+        if (etagMatches(exchange, etag)) {
+            sendNotModified(exchange, etag, acceptsGzip(exchange));
+            return;
+        }
+        admit(exchange, traversals, config, () -> {
+            Body body = computation.run();
+            long t0 = System.nanoTime();
+            byte[] rendered = renderOrStream(exchange, cache, contentType, etag, body);
+            if (rendered == null) {
+                metrics.serialized(System.nanoTime() - t0);
+                return;
+            }
+            ResponseCache.Entry entry = ResponseCache.Entry.encode(contentType, etag, rendered);
+            metrics.serialized(System.nanoTime() - t0);
+            cache.put(key, entry);
+            sendEntry(exchange, entry);
+        });
+    }
+
+    /**
+     * Render body đúng một lần. Cache bật: đệm tới entryLimit byte, vừa thì trả byte[] (chưa gửi) để cache;
+     * vượt thì gửi header, đẩy phần đã đệm và stream tiếp phần còn lại, trả null.
+     * Cache tắt: stream ngay từ byte đầu, không đệm, chỉ gzip khi client nhận.
+     */
+    private static byte[] renderOrStream(HttpExchange exchange, ResponseCache cache, String contentType, String etag,
+                                         Body body) throws IOException {
+        int limit = cache.entryLimit();
+        if (limit <= 0) {
+            try (OutputStream out = openStream(exchange, contentType, etag)) {
+                body.writeTo(out);
+            }
+            return null;
+        }
+        ResponseCache.SpillBuffer buf = new ResponseCache.SpillBuffer(limit, () -> openStream(exchange, contentType, etag));
+        try (buf) {
+            body.writeTo(buf);
+        }
+        return buf.spilled() ? null : buf.toByteArray();
+    }
+
+    // Body không cache: gửi header rồi ghi dần ra socket (chunked), nén gzip trên đường đi nếu client chấp nhận
+    private static OutputStream openStream(HttpExchange exchange, String contentType, String etag)
+            throws IOException {
+        boolean gzip = acceptsGzip(exchange);
+        Headers h = exchange.getResponseHeaders();
+        h.add("Content-Type", contentType);
+        h.add("Cache-Control", "no-cache");
+        h.add("Vary", "Accept-Encoding");
+        h.add("ETag", gzip ? gzipEtag(etag) : etag);
+        if (gzip) h.add("Content-Encoding", "gzip");
+        exchange.sendResponseHeaders(200, 0); // 0 = chunked, không cần biết trước độ dài
+        OutputStream os = exchange.getResponseBody();
+        if (gzip) os = new GZIPOutputStream(os, STREAM_BUFFER_CHARS);
+        return os;
+    }
+
+    // ---------------- conditional / compressed responses ----------------
+
+    private static void sendEntry(HttpExchange exchange, ResponseCache.Entry entry) throws IOException {
+        boolean gzip = entry.gzip != null && acceptsGzip(exchange);
+        if (etagMatches(exchange, entry.etag)) {
+            sendNotModified(exchange, entry.etag, gzip);
+            return;
+        }
+        byte[] resp = gzip ? entry.gzip : entry.body;
+        Headers h = exchange.getResponseHeaders();
+        h.add("Content-Type", entry.contentType);
+        h.add("Cache-Control", "no-cache");
+        h.add("Vary", "Accept-Encoding");
+        h.add("ETag", gzip ? gzipEtag(entry.etag) : entry.etag);
+        if (gzip) h.add("Content-Encoding", "gzip");
+        exchange.sendResponseHeaders(200, resp.length);
+        try (OutputStream os = exchange.getResponseBody()) {
+            os.write(resp);
+        }
+    }
+
+    /** 304 mang ETag của representation client này sẽ nhận (bản gzip hay bản gốc), không phải tag client gửi lên. */
+    private static void sendNotModified(HttpExchange exchange, String etag, boolean gzip) throws IOException {
+        exchange.getResponseHeaders().add("ETag", gzip ? gzipEtag(etag) : etag);
+        exchange.getResponseHeaders().add("Vary", "Accept-Encoding");
+        exchange.sendResponseHeaders(304, -1);
+        exchange.close();
+    }
+
+    // bản gzip là một representation khác nên có ETag riêng: "abc" -> "abc-gz"
+    private static String gzipEtag(String etag) {
+        return etag.substring(0, etag.length() - 1) + "-gz\"";
+    }
+
+    private static boolean etagMatches(HttpExchange exchange, String etag) {
+        return etagMatches(exchange.getRequestHeaders().getFirst("If-None-Match"), etag);
+    }
+
+    /** If-None-Match khớp {@code etag} hoặc bản gzip của nó (so sánh yếu: bỏ tiền tố W/). */
+    static boolean etagMatches(String inm, String etag) {
+        if (inm == null) return false;
+        String gz = gzipEtag(etag);
+        for (String tag : inm.split(",")) {
+            tag = tag.trim();
+            if (tag.startsWith("W/")) tag = tag.substring(2);
+            if (tag.equals("*") || tag.equals(etag) || tag.equals(gz)) return true;
+        }
+        return false;
+    }
+
+    private static boolean acceptsGzip(HttpExchange exchange) {
+        return acceptsGzip(exchange.getRequestHeaders().getFirst("Accept-Encoding"));
+    }
+
+    /** Accept-Encoding có gzip với q khác 0. */
+    static boolean acceptsGzip(String ae) {
+        if (ae == null) return false;
+        for (String part : ae.split(",")) {
+            String[] p = part.trim().split(";");
+            if (!p[0].trim().equalsIgnoreCase("gzip")) continue;
+            for (int i = 1; i < p.length; i++) {
+                String param = p[i].trim().replace(" ", "");
+                if (param.equals("q=0") || param.matches("q=0\\.0*")) return false;
+            }
+            return true;
+        }
+        return false;
+    }
+
+    /** "all" -> null (mọi đỉnh); ngược lại danh sách id cách nhau bởi dấu phẩy, giữ nguyên thứ tự và lặp lại. */
+    static int[] parseStarts(String s, int n) {
+        if (s.trim().equalsIgnoreCase("all")) return null;
+        String[] parts = s.split(",");
+        int[] starts = new int[parts.length];
+        int count = 0;
+        for (String p : parts) {
+            if (p.isBlank()) continue;
+            int v;
+            try {
+                v = Integer.parseInt(p.trim());
+            } catch (NumberFormatException ex) {
+                throw new IllegalArgumentException("starts phải là danh sách số nguyên 0.." + (n-1) + " hoặc all");
+            }
+            if (v < 0 || v >= n) throw new IllegalArgumentException("start ngoài phạm vi 0.." + (n-1) + ": " + v);
+            starts[count++] = v;
+        }
+        if (count == 0) throw new IllegalArgumentException("starts rỗng");
+        return Arrays.copyOf(starts, count);
+    }
+
+    private static final int STREAM_BUFFER_CHARS = 64 * 1024;
+
+    private static Writer streamWriter(OutputStream os) {
+        return new BufferedWriter(new OutputStreamWriter(os, StandardCharsets.UTF_8), STREAM_BUFFER_CHARS);
+    }
+
+    private static void sendText(HttpExchange exchange, int status, String text) throws IOException {
+        byte[] resp = text.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "text/plain; charset=utf-8");
+        exchange.sendResponseHeaders(status, resp.length);
+        try (OutputStream os = exchange.getResponseBody()) {
+            os.write(resp);
+        }
+    }
+
+    private static void writeAdjacencyText(CsrGraph graph, Writer out) throws IOException {
+        out.write(graph.isDirected() ? "Danh sách kề (đồ thị có hướng):\n" : "Danh sách kề (đồ thị vô hướng):\n");
+        for (int i = 0; i < graph.vertexCount(); i++) {
+            out.write(Integer.toString(i));
+            out.write(": [");
+            for (int j = graph.begin(i), e = graph.end(i); j < e; j++) {
+                if (j > graph.begin(i)) out.write(", ");
+                out.write(Integer.toString(graph.target(j)));
+            }
+            out.write("]\n");
+        }
+    }
+
+    // plain text trace (kept for compatibility)
+    public String dfsIterativeTrace(int start) {
+        StringWriter sw = new StringWriter();
+        try {
+            writeDfsTrace(kernels.record(store.current().graph(), start), sw);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return sw.toString();
+    }
+
+    private void writeDfsTrace(DfsTrace trace, Writer out) throws IOException {
+        out.write("Bắt đầu DFS từ đỉnh " + trace.start() + "\n");
+        out.write("Stack ban đầu: [" + trace.start() + "]\n\n");
+
+        DfsTrace.Cursor c = trace.cursor();
+        c.next(); // PUSH ban đầu đã in ở trên
+        while (c.hasNext()) {
+            c.next();
+            String node = Integer.toString(c.node());
+            switch (c.action()) {
+                case DfsKernel.VISIT:
+                    out.write("VISIT " + node + " (đánh dấu visited)\n");
+                    continue; // VISIT luôn được theo sau bởi PUSH/POP trong cùng vòng lặp
+                case DfsKernel.PUSH:
+                    out.write("PUSH " + node + " (kề của " + c.stackFromTop(1) + "). Stack: ");
+                    break;
+                default:
+                    out.write("POP " + node + " (không còn neighbor chưa thăm). Stack: ");
+                    break;
+            }
+            writeStack(c, out);
+            out.write("\n\n");
+        }
+
+        out.write("DFS hoàn tất. Thứ tự đỉnh đã thăm: ");
+        boolean first = true;
+        for (int i = 0; i < trace.vertexCount(); i++) if (c.isVisited(i)) {
+            if (!first) out.write(", ");
+            out.write(Integer.toString(i));
+            first = false;
+        }
+        out.write("\n");
+    }
+
+    // stack in ArrayDeque.toString() form, top first: [3, 2, 1, 0]
+    private static void writeStack(DfsTrace.Cursor c, Writer out) throws IOException {
+        out.write("[");
+        for (int i = 0; i < c.stackDepth(); i++) {
+            if (i > 0) out.write(", ");
+            out.write(Integer.toString(c.stackFromTop(i)));
+        }
+        out.write("]");
+    }
+
+    // ---------------- simple UI HTML (Vietnamese) ----------------
+    private String indexHtml() {
+        // embedded minimal CSS + JS (fetch /dfs?start=...&format=bin + /graph/edges, dựng lại trạng thái phía client)
+        StringBuilder sb = new StringBuilder();
+        sb.append("<!doctype html>\n<html lang='vi'>\n<head>\n<meta charset='utf-8'>\n");
+        sb.append("<meta name='viewport' content='width=device-width,initial-scale=1'>\n");
+        sb.append("<title>Demo DFS — Bài giữa kỳ</title>\n");
+        sb.append("<style>\n");
+        sb.append("body{font-family:Inter,system-ui,Segoe UI,Roboto,Arial;margin:18px;background:#f7fafc;color:#111}\n");
+        sb.append(".container{max-width:1000px;margin:0 auto;background:#fff;padding:18px;border-radius:10px;box-shadow:0 6px 24px rgba(0,0,0,0.08)}\n");
+        sb.append("h1{font-size:20px;margin:0 0 10px}\n");
+        sb.append(".row{display:flex;gap:16px}\n");
+        sb.append(".col{flex:1}\n");
+        sb.append(".panel{background:#fbfbff;padding:12px;border-radius:8px;border:1px solid #eef2ff}\n");
+        sb.append("label{display:block;margin-bottom:6px;font-weight:600}\n");
+        sb.append("input[type=number]{width:100%;padding:8px;border-radius:6px;border:1px solid #d7d7e6}\n");
+        sb.append("button{padding:8px 12px;border-radius:8px;border:0;background:#2563eb;color:white;cursor:pointer}\n");
+        sb.append("button.secondary{background:#6b7280}\n");
+        sb.append(".nodes{display:flex;flex-wrap:wrap;gap:8px;margin-top:8px}\n");
+        sb.append(".node{width:40px;height:40px;border-radius:50%;display:flex;align-items:center;justify-content:center;background:#e6eefc;color:#0b2a66;font-weight:700}\n");
+        sb.append(".node.visited{background:#16a34a;color:white}\n");
+        sb.append(".stack{min-height:40px;border-radius:6px;padding:8px;background:#fff;border:1px solid #e6e6ef}\n");
+        sb.append(".steps{max-height:360px;overflow:auto;padding:8px;background:#fff;border-radius:6px;border:1px solid #e6e6ef}\n");
+        sb.append(".step{padding:6px;border-bottom:1px dashed #eee}\n");
+        sb.append(".step.current{background:linear-gradient(90deg, rgba(37,99,235,0.06), transparent)}\n");
+        sb.append(".meta{font-size:13px;color:#374151;margin-bottom:8px}\n");
+        sb.append("</style>\n</head>\n<body>\n<div class='container'>\n  <h1>DEMO DFS (Đồ án giữa kỳ)</h1>\n  <div class='meta' id='graphMeta'>Đồ thị: 9 đỉnh (0..8). Nhập đỉnh bắt đầu, bấm Chạy. </div>\n  <div class='row'>\n    <div class='col'>\n      <div class='panel'>\n        <label id='startLabel'>Đỉnh bắt đầu (0..8)</label>\n        <input id='start' type='number' min='0' max='8' value='0'>\n        <div style='margin-top:10px;display:flex;gap:8px'>\n          <button id='run'>Chạy DFS</button>\n          <button id='stepPrev' class='secondary'>⟵ Bước trước</button>\n          <button id='stepNext' class='secondary'>Bước sau ⟶</button>\n          <button id='play' class='secondary'>▶ Play</button>\n          <button id='stop' class='secondary'>■ Stop</button>\n        </div>\n        <div style='margin-top:12px'>\n          <div class='meta'>Stack (đỉnh trên cùng ở bên trái):</div>\n          <div id='stack' class='stack'></div>\n        </div>\n      </div>\n      <div style='margin-top:12px' class='panel'>\n        <div class='meta'>Đỉnh (màu xanh: đã thăm)</div>\n        <div id='nodes' class='nodes'></div>\n      </div>\n    </div>\n    <div class='col'>\n      <div class='panel'>\n        <div class='meta'>Danh sách kề</div>\n        <pre id='adj' style='white-space:pre-wrap;margin:0'></pre>\n      </div>\n      <div style='margin-top:12px' class='panel'>\n        <div class='meta'>Các bước (nhấn Play để tự chạy)</div>\n        <div id='steps' class='steps'></div>\n      </div>\n    </div>\n  </div>\n  <div style='margin-top:12px' class='panel'>\n    <div class='meta'>Kết quả nhanh</div>\n    <div id='result' style='white-space:pre-wrap;font-family:monospace'></div>\n <div id='visitedOrder' style='margin-top:8px;font-weight:600;color:#0b2a66'></div>\n </div>\n</div>\n\n<script>\n(function(){\n  const startInput = document.getElementById('start');\n  const runBtn = document.getElementById('run');\n  const stepsEl = document.getElementById('steps');\n  const nodesEl = document.getElementById('nodes');\n  const stackEl = document.getElementById('stack');\n  const adjEl = document.getElementById('adj');\n  const resultEl = document.getElementById('result');\n  const prevBtn = document.getElementById('stepPrev');\n  const nextBtn = document.getElementById('stepNext');\n  const playBtn = document.getElementById('play');\n  const stopBtn = document.getElementById('stop');\n\n  let jsonData = null;\n  let nodeCount = 9;\n  let index = 0;\n  let timer = null;\n\n  function renderNodes(visitedArr){\n    nodesEl.innerHTML = '';\n    visitedArr = visitedArr || Array(nodeCount).fill(false);\n    for(let i=0;i<nodeCount;i++){\n      const d = document.createElement('div'); d.className='node' + (visitedArr[i] ? ' visited' : ''); d.textContent = i; nodesEl.appendChild(d);\n    }\n  }\n\n  function setNodeCount(n){\n    nodeCount = n;\n    startInput.max = n-1;\n    document.getElementById('startLabel').textContent = 'Đỉnh bắt đầu (0..' + (n-1) + ')';\n    document.getElementById('graphMeta').textContent = 'Đồ thị: ' + n + ' đỉnh (0..' + (n-1) + '). Nhập đỉnh bắt đầu, bấm Chạy.';\n  }\n\n  function renderAdj(adj){\n    let text='';\n    for(const k in adj){ text += k + ': [' + adj[k].join(', ') + ']\\n'; }\n    adjEl.textContent = text;\n  }\n\n  function renderStack(arr){\n    stackEl.innerHTML = '';\n    if(!arr || arr.length===0){ stackEl.textContent='(rỗng)'; return; }\n    // show top at left\n    const ul = document.createElement('div'); ul.style.display='flex'; ul.style.gap='8px';\n    for(let i=0;i<arr.length;i++){\n      const s = document.createElement('div'); s.style.padding='6px 10px'; s.style.borderRadius='6px'; s.style.background='#eef2ff'; s.textContent = arr[i]; ul.appendChild(s);\n    }\n    stackEl.appendChild(ul);\n  }\n\n  // Dựng lại trạng thái từ vết delta: PUSH/POP cập nhật stack, VISIT tăng số đỉnh đã thăm.\n  // visited tại một bước = tiền tố của visitedOrder; checkpoint mỗi CP bước để lùi nhanh.\n  const CP = 64;\n  let replay = null;\n\n  function makeReplay(d){\n    const rank = new Int32Array(nodeCount).fill(-1);\n    d.visitedOrder.forEach((v, r)=>{ rank[v] = r; });\n    const cps = [];\n    const r = { step: -1, stack: [], vcount: 0 };\n    function apply(j){\n      const a = d.actions[j];\n      if(a === 0) r.stack.push(d.nodes[j]); else if(a === 1) r.vcount++; else r.stack.pop();\n      if(j % CP === 0 && !cps[j / CP]) cps[j / CP] = { stack: r.stack.slice(), vcount: r.vcount };\n    }\n    r.seek = function(t){\n      if(t < r.step){\n        const c = Math.floor(t / CP);\n        if(cps[c]){ r.stack = cps[c].stack.slice(); r.vcount = cps[c].vcount; r.step = c * CP; }\n        else { r.stack = []; r.vcount = 0; r.step = -1; }\n      }\n      while(r.step < t) apply(++r.step);\n      return r;\n    };\n    r.visited = function(){ const out = new Array(nodeCount); for(let v=0;v<nodeCount;v++) out[v] = rank[v] >= 0 && rank[v] < r.vcount; return out; };\n    r.stackTopFirst = function(){ return r.stack.slice().reverse(); };\n    return r;\n  }\n\n  function stepCount(){ return jsonData ? jsonData.actions.length : 0; }\n  function actionName(i){ return jsonData.actionNames[jsonData.actions[i]]; }\n\n  function renderStepsList(){\n    stepsEl.innerHTML = '';\n    for(let i=0;i<stepCount();i++){\n      const st = replay.seek(i);\n      const s = document.createElement('div'); s.className='step'; s.dataset.i = i;\n      s.textContent = (i+1) + '. ' + actionName(i) + ' ' + jsonData.nodes[i] + '  | stack: [' + st.stackTopFirst().join(',') + ']';\n      s.onclick = ()=>{ setIndex(i); }; \n      stepsEl.appendChild(s);\n    }\n  }\n\n  function applyStep(i){\n    if(!jsonData) return;\n    const st = replay.seek(i);\n    const stack = st.stackTopFirst();\n    // update nodes\n    renderNodes(st.visited());\n    renderStack(stack);\n    // highlight current step\n    Array.from(stepsEl.children).forEach((c, idx)=> c.classList.toggle('current', idx===i));\n    // update result summary\n    resultEl.textContent = 'Bước ' + (i+1) + ' — ' + actionName(i) + ' ' + jsonData.nodes[i] + '\\n\\n' + 'Stack hiện tại: [' + stack.join(',') + ']';\n  }\n\n  function setIndex(i){ index = Math.max(0, Math.min(i, stepCount()-1)); applyStep(index); }\n\n  // Giải mã /dfs?format=bin (bố cục: xem BinaryTrace.java) thành cùng dạng với format=delta.\n  // Đỉnh của VISIT / POP là đỉnh trên cùng stack; checkpoint chỉ cần khi nhảy cóc nên bỏ qua.\n  function decodeBin(buf){\n    const b = new Uint8Array(buf); let p = 5;\n    if(b[0]!==68 || b[1]!==70 || b[2]!==83 || b[3]!==66) throw new Error('không phải vết DFS nhị phân');\n    if(b[4]!==1) throw new Error('phiên bản vết không hỗ trợ: ' + b[4]);\n    function varint(){ let x = 0, mul = 1, c; do { c = b[p++]; x += (c & 127) * mul; mul *= 128; } while(c & 128); return x; }\n    const version = varint(), n = varint(), start = varint(), steps = varint();\n    varint(); varint(); varint(); // pushes, cpInterval, checkpoints\n    const actions = b.subarray(p, p + steps); p += steps;\n    const nodes = new Int32Array(steps), stack = [], visitedOrder = [];\n    for(let i=0;i<steps;i++){\n      const a = actions[i];\n      if(a === 0){ nodes[i] = varint(); stack.push(nodes[i]); continue; }\n      nodes[i] = stack[stack.length-1];\n      if(a === 1) visitedOrder.push(nodes[i]); else stack.pop();\n    }\n    return { version: version, n: n, start: start, actionNames: ['PUSH','VISIT','POP'], actions: actions, nodes: nodes, visitedOrder: visitedOrder };\n  }\n\n  // Danh sách kề chỉ tải lại khi phiên bản đồ thị của vết khác bản đang giữ\n  let graph = null;\n  function loadGraph(version){\n    if(graph && graph.version === version) return Promise.resolve(graph);\n    return fetch('/graph/edges').then(r=>r.json()).then(g=>{ graph = g; return g; });\n  }\n\n  function fetchAndRender(){\n    const v = Number(startInput.value);\n    fetch('/dfs?start=' + v + '&format=bin').then(r=>{ if(!r.ok) throw new Error('HTTP ' + r.status); return r.arrayBuffer(); })\n    .then(buf=>{ const j = decodeBin(buf); return loadGraph(j.version).then(g=>{ j.adj = g.adj; return j; }); })\n    .then(j=>{\n      jsonData = j;\n      setNodeCount(j.n);\n      replay = makeReplay(j);\n      renderAdj(j.adj);\n      renderNodes();\n      renderStack([]);\n      renderStepsList();\n      setIndex(0);\n    document.getElementById('visitedOrder').textContent = 'Thứ tự DFS: ' + (j.visitedOrder || []).join(' → ');      }).catch(e=>{\n      alert('Lỗi khi gọi API: ' + e);\n    });\n  }\n\n  runBtn.addEventListener('click', ()=>{ fetchAndRender(); });\n  prevBtn.addEventListener('click', ()=>{ if(jsonData) setIndex(index-1); });\n  nextBtn.addEventListener('click', ()=>{ if(jsonData) setIndex(index+1); });\n  playBtn.addEventListener('click', ()=>{ if(!jsonData) return; if(timer) clearInterval(timer); timer = setInterval(()=>{ if(index < stepCount()-1) setIndex(index+1); else clearInterval(timer); }, 700); });\n  stopBtn.addEventListener('click', ()=>{ if(timer) { clearInterval(timer); timer = null; } });\n\n  // auto load default\n  fetchAndRender();\n})();\n</script>\n</body>\n</html>\n");
+        return sb.toString();
+    }
+
+    private Map<String, String> parseQuery(String q) {
+        Map<String, String> map = new HashMap<>();
+        if (q == null || q.isEmpty()) return map;
+        String[] parts = q.split("&");
+        for (String p : parts) {
+            String[] kv = p.split("=", 2);
+            if (kv.length == 2) map.put(kv[0], kv[1]);
+        }
+        return map;
+    }
+
+    public static void main(String[] args) throws Exception {
+        ServerConfig config = ServerConfig.fromEnv();
+        GraphDFSServer app;
+        if (config.graphFile != null) {
+            long t0 = System.nanoTime();
+            CsrGraph g = GraphFile.open(Path.of(config.graphFile));
+            System.out.println("Đã map " + config.graphFile + ": " + g.vertexCount() + " đỉnh, " + g.edgeCount()
+                    + (g.isDirected() ? " cung" : " cạnh") + " (" + (System.nanoTime() - t0) / 1_000_000 + " ms)");
+            app = new GraphDFSServer(g);
+        } else {
+            app = new GraphDFSServer();
+        }
+        app.startHttpServer(config);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,281 @@
+package gkltdt.dfs;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * GraphFile — định dạng file nhị phân của CsrGraph, nạp bằng FileChannel.map (xem {@link MappedCsrGraph}).
+ *
+ * Bố cục (little-endian, mọi số nguyên là int32 trừ khi ghi khác):
+ * <pre>
+ *   0  magic      0x52534347 ("GCSR")
+ *   4  version    1
+ *   8  flags      bit 0 = có hướng
+ *  12  vertices   n
+ *  16  arcs       int64, số phần tử targets (&lt; 2^31)
+ *  24  edges      int64, số cạnh (vô hướng) hoặc số cung (có hướng)
+ *  32  dự phòng   32 byte 0
+ *  64  offsets    n+1 int32, offsets[0] = 0, offsets[n] = arcs
+ *  64 + 4(n+1)    targets  arcs int32; mỗi khoảng kề đã sắp xếp tăng dần, không trùng lặp
+ * </pre>
+ *
+ * Chuyển danh sách cạnh dạng text sang định dạng này (offline):
+ * <pre>  java -cp dfs-server.jar gkltdt.dfs.GraphFile [--directed] edges.txt graph.csr</pre>
+ * Mỗi dòng: hai số nguyên không âm u v đầu tiên là một cạnh, phần còn lại (trọng số...) bị bỏ qua;
+ * dòng trống và dòng mà ký tự khác khoảng trắng đầu tiên là '#' hoặc '%' là chú thích.
+ * id có dấu ('-' / '+' ngay trước chữ số) bị từ chối.
+ */
+public final class GraphFile {
+
+    static final int MAGIC = 0x52534347;
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 64;
+    private static final int FLAG_DIRECTED = 1;
+    private static final int IO_BUFFER = 1 << 20;
+
+    private GraphFile() {}
+
+    /**
+     * Kết quả {@link #convert}: số dòng cạnh đọc được, số đỉnh, số cung trước khi loại trùng,
+     * số cạnh (vô hướng) / cung (có hướng) sau khi loại trùng và kích thước file.
+     */
+    public record ConvertStats(long inputEdges, int vertices, long rawArcs, long edges, long fileBytes) {}
+
+    /** Map file đồ thị vào bộ nhớ; chỉ kiểm tra header và kích thước, không quét dữ liệu. */
+    public static CsrGraph open(Path path) throws IOException {
+        try (FileChannel ch = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer h = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            while (h.hasRemaining() && ch.read(h) >= 0) { }
+            if (h.hasRemaining() || h.getInt(0) != MAGIC) throw new IOException(path + ": không phải file đồ thị");
+            if (h.getInt(4) != VERSION) throw new IOException(path + ": phiên bản không hỗ trợ " + h.getInt(4));
+            boolean directed = (h.getInt(8) & FLAG_DIRECTED) != 0;
+            int n = h.getInt(12);
+            long arcs = h.getLong(16);
+            long edges = h.getLong(24);
+            if (n < 0 || arcs < 0 || arcs > Integer.MAX_VALUE - 8) throw new IOException(path + ": header hỏng");
+            long targetsAt = HEADER_BYTES + 4L * (n + 1);
+            if (ch.size() != targetsAt + 4 * arcs) {
+                throw new IOException(path + ": kích thước " + ch.size() + " byte, header cần " + (targetsAt + 4 * arcs));
+            }
+            MappedInts offsets = MappedInts.map(ch, FileChannel.MapMode.READ_ONLY, HEADER_BYTES, n + 1L);
+            MappedInts targets = MappedInts.map(ch, FileChannel.MapMode.READ_ONLY, targetsAt, arcs);
+            if (offsets.get(0) != 0 || offsets.get(n) != arcs) throw new IOException(path + ": offsets hỏng");
+            return new MappedCsrGraph(path, n, directed, (int) arcs, edges, offsets, targets);
+        }
+    }
+
+    /** Ghi một đồ thị bất kỳ (heap hoặc mapped) ra file. */
+    public static void write(CsrGraph g, Path path) throws IOException {
+        int n = g.vertexCount();
+        try (FileChannel ch = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buf = ByteBuffer.allocate(IO_BUFFER).order(ByteOrder.LITTLE_ENDIAN);
+            putHeader(buf, n, g.isDirected(), g.arcCount(), g.edgeCount());
+            for (int v = 0; v <= n; v++) {
+                if (!buf.hasRemaining()) drain(buf, ch);
+                buf.putInt(v < n ? g.begin(v) : g.arcCount());
+            }
+            for (int i = 0, e = g.arcCount(); i < e; i++) {
+                if (!buf.hasRemaining()) drain(buf, ch);
+                buf.putInt(g.target(i));
+            }
+            drain(buf, ch);
+        }
+    }
+
+    /**
+     * Chuyển danh sách cạnh text sang file đồ thị, bộ nhớ heap ~8 byte mỗi đỉnh (không phụ thuộc số cạnh).
+     * Lượt 1 đếm bậc; lượt 2 rải đích thẳng vào vùng targets đã map của file ra;
+     * cuối cùng sắp xếp + loại trùng từng khoảng kề tại chỗ rồi ghi offsets và cắt file.
+     */
+    public static ConvertStats convert(Path edgeList, Path out, boolean directed) throws IOException {
+        // 1) đếm bậc (số đỉnh = id lớn nhất + 1)
+        DegreeCounter counter = new DegreeCounter(directed);
+        readEdges(edgeList, counter);
+        int n = counter.maxId + 1;
+        int[] offsets = new int[n + 1];
+        long total = 0;
+        for (int v = 0; v < n; v++) {
+            offsets[v] = (int) total;
+            total += counter.degree[v];
+            if (total > Integer.MAX_VALUE - 8) throw new IOException("Quá nhiều cung (kể cả trùng lặp): " + total);
+        }
+        offsets[n] = (int) total;
+        int[] cursor = counter.degree; // tái dùng mảng đếm bậc làm con trỏ ghi
+        System.arraycopy(offsets, 0, cursor, 0, n);
+
+        long targetsAt = HEADER_BYTES + 4L * (n + 1);
+        try (FileChannel ch = FileChannel.open(out, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            MappedInts targets = MappedInts.map(ch, FileChannel.MapMode.READ_WRITE, targetsAt, total);
+
+            // 2) rải đích vào đúng khoảng kề
+            readEdges(edgeList, (u, v) -> {
+                targets.put(cursor[u]++, v);
+                if (!directed && u != v) targets.put(cursor[v]++, u);
+            });
+
+            // 3) sắp xếp từng khoảng kề và loại trùng (nén tại chỗ, vị trí ghi luôn <= vị trí đọc)
+            int[] tmp = new int[16];
+            int write = 0;
+            int begin = 0;
+            long edges = 0;
+            for (int v = 0; v < n; v++) {
+                int end = offsets[v + 1];
+                int len = end - begin;
+                if (len > tmp.length) tmp = new int[len];
+                for (int i = 0; i < len; i++) tmp[i] = targets.get(begin + i);
+                Arrays.sort(tmp, 0, len);
+                offsets[v] = write;
+                for (int i = 0; i < len; i++) {
+                    if (i > 0 && tmp[i] == tmp[i - 1]) continue;
+                    targets.put(write++, tmp[i]);
+                    if (directed || tmp[i] >= v) edges++;
+                }
+                begin = end;
+            }
+            offsets[n] = write;
+            targets.force();
+
+            // 4) header + offsets, rồi cắt phần targets thừa do cạnh trùng
+            ByteBuffer buf = ByteBuffer.allocate(IO_BUFFER).order(ByteOrder.LITTLE_ENDIAN);
+            ch.position(0);
+            putHeader(buf, n, directed, write, edges);
+            for (int v = 0; v <= n; v++) {
+                if (!buf.hasRemaining()) drain(buf, ch);
+                buf.putInt(offsets[v]);
+            }
+            drain(buf, ch);
+            ch.truncate(targetsAt + 4L * write);
+            return new ConvertStats(counter.edges, n, total, edges, ch.size());
+        }
+    }
+
+    private static void putHeader(ByteBuffer buf, int n, boolean directed, long arcs, long edges) {
+        buf.putInt(MAGIC).putInt(VERSION).putInt(directed ? FLAG_DIRECTED : 0).putInt(n)
+                .putLong(arcs).putLong(edges);
+        while (buf.position() < HEADER_BYTES) buf.put((byte) 0);
+    }
+
+    private static void drain(ByteBuffer buf, FileChannel ch) throws IOException {
+        buf.flip();
+        while (buf.hasRemaining()) ch.write(buf);
+        buf.clear();
+    }
+
+    private interface EdgeSink {
+        void edge(int u, int v) throws IOException;
+    }
+
+    private static final class DegreeCounter implements EdgeSink {
+        final boolean directed;
+        int[] degree = new int[1024];
+        int maxId = -1;
+        long edges;
+
+        DegreeCounter(boolean directed) {
+            this.directed = directed;
+        }
+
+        @Override
+        public void edge(int u, int v) {
+            int m = Math.max(u, v);
+            if (m >= degree.length) {
+                degree = Arrays.copyOf(degree, (int) Math.min(Integer.MAX_VALUE - 8, Math.max(2L * degree.length, m + 1L)));
+            }
+            if (m > maxId) maxId = m;
+            degree[u]++;
+            if (!directed && u != v) degree[v]++;
+            edges++;
+        }
+    }
+
+    // Máy trạng thái trên từng khối byte: không tạo String cho mỗi dòng, không gọi read() từng byte
+    private static void readEdges(Path path, EdgeSink sink) throws IOException {
+        try (InputStream in = Files.newInputStream(path)) {
+            byte[] buf = new byte[IO_BUFFER];
+            long line = 1;
+            long u = -1, v = -1, cur = -1;
+            boolean lineStart = true;
+            boolean skip = false; // dòng chú thích, hoặc đã đủ hai đỉnh: bỏ qua tới hết dòng
+            boolean sign = false; // ký tự trước là '-' / '+' không nằm sau chữ số
+            for (int len; (len = in.read(buf)) >= 0; ) {
+                for (int p = 0; p < len; p++) {
+                    int c = buf[p];
+                    if (c == '\n') {
+                        if (cur >= 0) {
+                            if (u < 0) u = cur; else if (v < 0) v = cur;
+                        }
+                        if (u >= 0 && v < 0) throw new IOException(path + ":" + line + ": thiếu đỉnh thứ hai");
+                        if (v >= 0) sink.edge((int) u, (int) v);
+                        u = v = cur = -1;
+                        lineStart = true;
+                        skip = false;
+                        sign = false;
+                        line++;
+                        continue;
+                    }
+                    if (skip) continue;
+                    if (lineStart) {
+                        if (c == ' ' || c == '\t' || c == '\r') continue;
+                        lineStart = false;
+                        if (c == '#' || c == '%') {
+                            skip = true;
+                            continue;
+                        }
+                    }
+                    if (c >= '0' && c <= '9') {
+                        if (sign) throw new IOException(path + ":" + line + ": id đỉnh không được có dấu");
+                        cur = (cur < 0 ? 0 : cur * 10) + (c - '0');
+                        if (cur > Integer.MAX_VALUE - 9) throw new IOException(path + ":" + line + ": id đỉnh quá lớn");
+                    } else if (cur < 0) {
+                        sign = c == '-' || c == '+';
+                    } else {
+                        if (u < 0) {
+                            u = cur;
+                        } else {
+                            v = cur;
+                            skip = true;
+                        }
+                        cur = -1;
+                    }
+                }
+            }
+            // dòng cuối không có '\n'
+            if (cur >= 0) {
+                if (u < 0) u = cur; else if (v < 0) v = cur;
+            }
+            if (u >= 0 && v < 0) throw new IOException(path + ":" + line + ": thiếu đỉnh thứ hai");
+            if (v >= 0) sink.edge((int) u, (int) v);
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        boolean directed = false;
+        String[] files = new String[2];
+        int count = 0;
+        for (String a : args) {
+            if (a.equals("--directed")) directed = true;
+            else if (count < 2) files[count++] = a;
+            else count = 3;
+        }
+        if (count != 2) {
+            System.err.println("Cách dùng: java -cp <classpath> gkltdt.dfs.GraphFile [--directed] <edges.txt> <graph.csr>");
+            System.exit(2);
+        }
+        long t0 = System.nanoTime();
+        ConvertStats st = convert(Path.of(files[0]), Path.of(files[1]), directed);
+        System.out.println("Đọc " + st.inputEdges() + " cạnh, " + st.vertices() + " đỉnh, "
+                + st.rawArcs() + " cung trước khi loại trùng");
+        System.out.println("Đã ghi " + files[1] + ": " + st.vertices() + " đỉnh, " + st.edges()
+                + (directed ? " cung" : " cạnh") + ", " + st.fileBytes() + " byte");
+        System.out.println("Xong trong " + (System.nanoTime() - t0) / 1_000_000 + " ms");
+    }
+}
@@ -0,0 +1,61 @@
+package gkltdt.dfs;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * GraphStore — giữ snapshot đồ thị hiện tại theo kiểu copy-on-write.
+ * - Người đọc lấy {@link #current()} một lần rồi dùng suốt request: không khoá, luôn thấy một phiên bản nhất quán
+ * - Mỗi lô thay đổi dựng một CsrGraph mới rồi công bố nguyên tử; các lô ghi được tuần tự hoá.
+ *   Lô không thêm / xoá được cạnh nào (cạnh đã có, cạnh không tồn tại) không tạo phiên bản mới
+ * - Phiên bản tăng dần đơn điệu, dùng cho khoá cache / ETag và trả về cho client. Phiên bản đầu là một
+ *   epoch ngẫu nhiên của tiến trình chứ không phải 1: sau khi khởi động lại (hoặc nạp GRAPH_FILE khác),
+ *   ETag / phiên bản client còn giữ không trùng nhầm với đồ thị mới
+ */
+final class GraphStore {
+
+    /** Một phiên bản bất biến của đồ thị. */
+    record Snapshot(CsrGraph graph, long version) {}
+
+    /** Kết quả một lô ghi: snapshot mới và số cạnh thực sự được thêm / xoá. */
+    record Update(Snapshot snapshot, long edgesChanged) {}
+
+    private final AtomicReference<Snapshot> current;
+    private final Object writeLock = new Object();
+
+    GraphStore(CsrGraph initial) {
+        // < 2^52: cộng thêm các lô ghi vẫn dưới 2^53, JSON / varint giải mã bằng số JS không mất chính xác
+        long epoch = ThreadLocalRandom.current().nextLong(1, 1L << 52);
+        this.current = new AtomicReference<>(new Snapshot(initial, epoch));
+    }
+
+    Snapshot current() {
+        return current.get();
+    }
+
+    /** Thêm lô cạnh {@code us[i]-vs[i]}; trả về snapshot mới đã công bố (hoặc snapshot cũ nếu không đổi gì). */
+    Update addEdges(int[] us, int[] vs) {
+        synchronized (writeLock) {
+            Snapshot old = current.get();
+            return publish(old, old.graph().withEdgesAdded(us, vs));
+        }
+    }
+
+    /** Xoá lô cạnh {@code us[i]-vs[i]}; trả về snapshot mới đã công bố (hoặc snapshot cũ nếu không đổi gì). */
+    Update removeEdges(int[] us, int[] vs) {
+        synchronized (writeLock) {
+            Snapshot old = current.get();
+            return publish(old, old.graph().withEdgesRemoved(us, vs));
+        }
+    }
+
+    private Update publish(Snapshot old, CsrGraph graph) {
+        // lô chỉ thêm hoặc chỉ xoá: số cạnh không đổi nghĩa là đồ thị không đổi. Giữ phiên bản cũ để
+        // không làm mất hiệu lực cache / ETag / danh sách kề client đang giữ
+        long changed = Math.abs(graph.edgeCount() - old.graph().edgeCount());
+        if (changed == 0) return new Update(old, 0);
+        Snapshot next = new Snapshot(graph, old.version() + 1);
+        current.set(next);
+        return new Update(next, changed);
+    }
+}
@@ -0,0 +1,39 @@
+package gkltdt.dfs;
+
+import java.util.concurrent.ArrayBlockingQueue;
+
+/**
+ * KernelPool — DfsKernel dùng lại giữa các request /dfs và các lá của DfsBatch, tránh cấp phát O(V) mỗi lượt duyệt.
+ * Request chạy trên virtual thread (mỗi request một thread) nên ThreadLocal không giữ được kernel qua các request;
+ * pool giữ tối đa {@code capacity} kernel rảnh, thừa thì bỏ cho GC.
+ * Kernel sai số đỉnh (phiên bản đồ thị mới thêm đỉnh) bị bỏ khi lấy ra.
+ */
+final class KernelPool {
+
+    private final ArrayBlockingQueue<DfsKernel> idle;
+
+    KernelPool(int capacity) {
+        this.idle = new ArrayBlockingQueue<>(Math.max(1, capacity));
+    }
+
+    DfsKernel acquire(int vertexCount) {
+        for (DfsKernel k; (k = idle.poll()) != null; ) {
+            if (k.vertexCount() == vertexCount) return k;
+        }
+        return new DfsKernel(vertexCount);
+    }
+
+    void release(DfsKernel kernel) {
+        idle.offer(kernel); // pool đầy: bỏ
+    }
+
+    /** Ghi vết bằng một kernel mượn từ pool. */
+    DfsTrace record(CsrGraph g, int start) {
+        DfsKernel k = acquire(g.vertexCount());
+        try {
+            return DfsTrace.record(g, start, k, DfsTrace.DEFAULT_CHECKPOINT_INTERVAL);
+        } finally {
+            release(k);
+        }
+    }
+}
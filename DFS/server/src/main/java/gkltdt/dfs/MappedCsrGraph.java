@@ -0,0 +1,40 @@
+package gkltdt.dfs;
+
+import java.nio.file.Path;
+
+/**
+ * MappedCsrGraph — CsrGraph đọc thẳng từ file nhị phân đã map (xem {@link GraphFile}).
+ * Mở file chỉ đọc header; các trang offsets / targets được OS nạp khi truy cập lần đầu,
+ * nên khởi động gần như tức thì và đồ thị không chiếm heap.
+ */
+final class MappedCsrGraph extends CsrGraph {
+
+    private final Path path;
+    private final int n;
+    private final boolean directed;
+    private final int arcCount;
+    private final long edgeCount;
+    private final MappedInts offsets; // độ dài n+1
+    private final MappedInts targets; // độ dài arcCount
+
+    MappedCsrGraph(Path path, int n, boolean directed, int arcCount, long edgeCount,
+                   MappedInts offsets, MappedInts targets) {
+        this.path = path;
+        this.n = n;
+        this.directed = directed;
+        this.arcCount = arcCount;
+        this.edgeCount = edgeCount;
+        this.offsets = offsets;
+        this.targets = targets;
+    }
+
+    Path path() { return path; }
+
+    @Override public int vertexCount() { return n; }
+    @Override public long edgeCount() { return edgeCount; }
+    @Override public int arcCount() { return arcCount; }
+    @Override public boolean isDirected() { return directed; }
+    @Override public int begin(int v) { return offsets.get(v); }
+    @Override public int end(int v) { return offsets.get(v + 1); }
+    @Override public int target(int i) { return targets.get(i); }
+}
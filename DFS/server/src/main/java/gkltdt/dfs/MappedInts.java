@@ -0,0 +1,70 @@
+package gkltdt.dfs;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * MappedInts — dãy int little-endian trong file, map bằng FileChannel.map theo từng đoạn 1 GiB
+ * (một MappedByteBuffer tối đa 2 GiB). Dữ liệu nằm trong page cache của OS, không chiếm heap;
+ * mapping vẫn hợp lệ sau khi đóng channel.
+ * Dãy vừa một mapping (&lt; 2^29 int, mọi đồ thị dưới ~500M cung) được map nguyên khối và đọc thẳng
+ * qua một IntBuffer, không tính đoạn cho từng lần đọc.
+ */
+final class MappedInts {
+
+    private static final int SEGMENT_SHIFT = 28; // 2^28 int = 1 GiB mỗi đoạn
+    private static final int SEGMENT_MASK = (1 << SEGMENT_SHIFT) - 1;
+    private static final long SINGLE_MAX_INTS = Integer.MAX_VALUE / 4; // một MappedByteBuffer tối đa 2 GiB
+
+    private final MappedByteBuffer[] buffers;
+    private final IntBuffer[] segments;
+    private final IntBuffer single; // != null khi cả dãy nằm trong một mapping
+    private final long length;
+
+    private MappedInts(MappedByteBuffer[] buffers, IntBuffer[] segments, long length) {
+        this.buffers = buffers;
+        this.segments = segments;
+        this.single = length <= SINGLE_MAX_INTS ? segments[0] : null;
+        this.length = length;
+    }
+
+    /** Map {@code length} int bắt đầu từ byte {@code position}; READ_WRITE tự mở rộng file nếu cần. */
+    static MappedInts map(FileChannel ch, FileChannel.MapMode mode, long position, long length) throws IOException {
+        boolean whole = length <= SINGLE_MAX_INTS;
+        int count = whole ? 1 : (int) ((length + SEGMENT_MASK) >>> SEGMENT_SHIFT);
+        MappedByteBuffer[] buffers = new MappedByteBuffer[count];
+        IntBuffer[] segments = new IntBuffer[count];
+        for (int s = 0; s < count; s++) {
+            long first = (long) s << SEGMENT_SHIFT;
+            long ints = whole ? length : Math.min(1L << SEGMENT_SHIFT, length - first);
+            buffers[s] = ch.map(mode, position + first * 4, ints * 4);
+            segments[s] = buffers[s].order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+        }
+        return new MappedInts(buffers, segments, length);
+    }
+
+    int get(long i) {
+        IntBuffer b = single;
+        if (b != null) return b.get((int) i);
+        return segments[(int) (i >>> SEGMENT_SHIFT)].get((int) (i & SEGMENT_MASK));
+    }
+
+    void put(long i, int value) {
+        IntBuffer b = single;
+        if (b != null) {
+            b.put((int) i, value);
+            return;
+        }
+        segments[(int) (i >>> SEGMENT_SHIFT)].put((int) (i & SEGMENT_MASK), value);
+    }
+
+    long length() { return length; }
+
+    /** Ghi các trang đã sửa xuống đĩa (chỉ có ý nghĩa với READ_WRITE). */
+    void force() {
+        for (MappedByteBuffer b : buffers) b.force();
+    }
+}
@@ -0,0 +1,177 @@
+package gkltdt.dfs;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.CRC32;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * ResponseCache — cache LRU các body đã mã hoá sẵn, giới hạn theo tổng số byte.
+ * - Khoá (phiên bản đồ thị, đỉnh bắt đầu, định dạng): kết quả duyệt không đổi khi đồ thị không đổi
+ * - Mỗi entry giữ byte[] gốc, bản gzip (nếu nhỏ hơn) và ETag, gửi đi không cần mã hoá lại
+ * - Entry lớn hơn maxEntryBytes không được cache: phần đã render được đẩy tiếp ra socket (SpillBuffer)
+ */
+final class ResponseCache {
+
+    record Key(long graphVersion, int start, String format) {}
+
+    /** Body đã mã hoá sẵn; gzip == null nếu nén không có lợi. */
+    static final class Entry {
+        final String contentType;
+        final String etag;
+        final byte[] body;
+        final byte[] gzip;
+
+        private Entry(String contentType, String etag, byte[] body, byte[] gzip) {
+            this.contentType = contentType;
+            this.etag = etag;
+            this.body = body;
+            this.gzip = gzip;
+        }
+
+        static Entry encode(String contentType, String etag, byte[] body) {
+            byte[] gz = gzip(body);
+            return new Entry(contentType, etag, body, gz.length < body.length ? gz : null);
+        }
+
+        /** Entry cho nội dung tĩnh: ETag lấy từ CRC32 của body. */
+        static Entry ofStatic(String contentType, byte[] body) {
+            CRC32 crc = new CRC32();
+            crc.update(body);
+            return encode(contentType, "\"s-" + Long.toHexString(crc.getValue()) + "\"", body);
+        }
+
+        long size() {
+            return body.length + (gzip == null ? 0 : gzip.length);
+        }
+    }
+
+    private final long maxBytes;
+    private final int maxEntryBytes;
+    private final LinkedHashMap<Key, Entry> map = new LinkedHashMap<>(64, 0.75f, true);
+    private long bytes;
+
+    ResponseCache(long maxBytes, int maxEntryBytes) {
+        this.maxBytes = maxBytes;
+        this.maxEntryBytes = maxEntryBytes;
+    }
+
+    /** Kích thước body lớn nhất còn đáng đệm để cache; 0 = cache tắt, handler stream thẳng. */
+    int entryLimit() {
+        return maxBytes <= 0 ? 0 : (int) Math.min(maxEntryBytes, maxBytes);
+    }
+
+    synchronized Entry get(Key key) {
+        return map.get(key);
+    }
+
+    synchronized void put(Key key, Entry entry) {
+        if (entry.size() > maxBytes) return;
+        Entry old = map.put(key, entry);
+        if (old != null) bytes -= old.size();
+        bytes += entry.size();
+        Iterator<Map.Entry<Key, Entry>> it = map.entrySet().iterator();
+        while (bytes > maxBytes && it.hasNext()) {
+            Entry eldest = it.next().getValue();
+            it.remove();
+            bytes -= eldest.size();
+        }
+    }
+
+    /** start &lt; 0: kết quả không theo start (vd. /graph/analysis), bỏ khỏi ETag. */
+    static String etag(Key key) {
+        String start = key.start() < 0 ? "" : key.start() + "-";
+        return "\"g" + key.graphVersion() + "-" + start + key.format() + "\"";
+    }
+
+    static byte[] gzip(byte[] body) {
+        ByteArrayOutputStream bos = new ByteArrayOutputStream(Math.max(64, body.length / 4));
+        try (GZIPOutputStream gz = new GZIPOutputStream(bos)) {
+            gz.write(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); // ByteArrayOutputStream không ném IOException
+        }
+        return bos.toByteArray();
+    }
+
+    // ---------------- render buffer ----------------
+
+    /** Đích ghi mở muộn: chỉ gọi khi body vượt giới hạn đệm (handler gửi header và trả về socket). */
+    interface SpillTarget {
+        OutputStream open() throws IOException;
+    }
+
+    /**
+     * Bộ đệm byte co giãn tới {@code limit} byte. Vượt giới hạn thì mở SpillTarget, đẩy phần đã đệm
+     * rồi ghi thẳng phần còn lại: body chỉ render một lần dù vừa cache hay phải stream.
+     * close() đóng đích (kết thúc gzip / chunked) nếu đã tràn.
+     */
+    static final class SpillBuffer extends OutputStream {
+        private final int limit;
+        private final SpillTarget target;
+        private byte[] buf;
+        private int count;
+        private OutputStream out; // != null sau khi tràn
+
+        SpillBuffer(int limit, SpillTarget target) {
+            this.limit = limit;
+            this.target = target;
+            this.buf = new byte[Math.min(limit, 8192)];
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            if (out == null && ensure(1)) {
+                buf[count++] = (byte) b;
+            } else {
+                out.write(b);
+            }
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            if (out == null && ensure(len)) {
+                System.arraycopy(b, off, buf, count, len);
+                count += len;
+            } else {
+                out.write(b, off, len);
+            }
+        }
+
+        /** true nếu còn chỗ trong bộ đệm; false nếu vừa tràn sang đích. */
+        private boolean ensure(int more) throws IOException {
+            if ((long) count + more > limit) {
+                out = target.open();
+                out.write(buf, 0, count);
+                buf = null;
+                return false;
+            }
+            if (count + more > buf.length) {
+                buf = Arrays.copyOf(buf, (int) Math.min(limit, Math.max((long) buf.length * 2, count + more)));
+            }
+            return true;
+        }
+
+        boolean spilled() { return out != null; }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(buf, count);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            if (out != null) out.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (out != null) out.close();
+        }
+    }
+}
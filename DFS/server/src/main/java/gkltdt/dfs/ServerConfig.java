@@ -0,0 +1,90 @@
+package gkltdt.dfs;
+
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * ServerConfig — cấu hình đọc từ biến môi trường (giá trị sai bị bỏ qua, dùng mặc định).
+ * - PORT               cổng HTTP (mặc định 8080)
+ * - GRAPH_FILE         file đồ thị nhị phân (GraphFile) để map vào bộ nhớ; trống = đồ thị mẫu 9 đỉnh
+ * - DFS_EXECUTOR       "virtual" (mặc định, mỗi request một virtual thread) hoặc "platform"
+ * - DFS_THREADS        số thread handler khi DFS_EXECUTOR=platform (mặc định DFS_MAX_TRAVERSALS + 2 x số CPU;
+ *                      tối thiểu DFS_MAX_TRAVERSALS + 1: mỗi lượt duyệt đang chạy giữ một handler chờ kết quả)
+ * - DFS_MAX_TRAVERSALS số lượt duyệt chạy đồng thời tối đa, cũng là số thread của TraversalPool;
+ *                      vượt quá trả 503 ngay (mặc định 2 x số CPU)
+ * - DFS_RETRY_AFTER    giá trị header Retry-After (giây) khi trả 503 (mặc định 1)
+ * - DFS_CACHE_MB       dung lượng cache response /dfs, tính cả bản gzip (mặc định 64; 0 = tắt)
+ * - DFS_CACHE_ENTRY_KB body lớn hơn ngưỡng này không cache mà stream thẳng (mặc định 4096)
+ * - DFS_MAX_VERTICES   số đỉnh tối đa mà /graph/edges được mở rộng đồ thị tới (mặc định 1000000);
+ *                      đồ thị nạp sẵn lớn hơn vẫn nhận cạnh giữa các đỉnh đã có
+ * - DFS_MAX_BATCH_EDGES số cạnh tối đa trong thân một POST / DELETE /graph/edges; vượt quá trả 413 (mặc định 1000000)
+ * - DFS_BATCH_THREADS  số worker ForkJoinPool cho /dfs/batch (mặc định số CPU)
+ * - DFS_BATCH_CHUNK_KB số byte kết quả /dfs/batch một chunk được giữ trước khi ghi ra (mặc định 16384)
+ * - DFS_TCP_NODELAY    bật TCP_NODELAY cho kết nối HTTP (mặc định 1; 0 = tắt)
+ */
+final class ServerConfig {
+
+    final int port;
+    final String graphFile;
+    final String executor;
+    final int threads;
+    final int maxTraversals;
+    final int retryAfterSeconds;
+    final long cacheBytes;
+    final int cacheEntryBytes;
+    final int maxVertices;
+    final int maxBatchEdges;
+    final int batchThreads;
+    final long batchChunkBytes;
+    final boolean tcpNoDelay;
+
+    private final Map<String, String> env;
+
+    private ServerConfig(Map<String, String> env) {
+        this.env = env;
+        int cpus = Runtime.getRuntime().availableProcessors();
+        port = envInt("PORT", 8080);
+        graphFile = envString("GRAPH_FILE", null);
+        executor = envString("DFS_EXECUTOR", "virtual");
+        maxTraversals = Math.max(1, envInt("DFS_MAX_TRAVERSALS", 2 * cpus));
+        threads = Math.max(maxTraversals + 1, envInt("DFS_THREADS", maxTraversals + 2 * cpus));
+        retryAfterSeconds = Math.max(0, envInt("DFS_RETRY_AFTER", 1));
+        cacheBytes = Math.max(0, envInt("DFS_CACHE_MB", 64)) * 1024L * 1024L;
+        cacheEntryBytes = (int) Math.min(Integer.MAX_VALUE - 8, Math.max(0, envInt("DFS_CACHE_ENTRY_KB", 4096)) * 1024L);
+        maxVertices = Math.max(1, envInt("DFS_MAX_VERTICES", 1_000_000));
+        maxBatchEdges = Math.min((Integer.MAX_VALUE - 8) / 2, Math.max(1, envInt("DFS_MAX_BATCH_EDGES", 1_000_000)));
+        batchThreads = Math.max(1, envInt("DFS_BATCH_THREADS", cpus));
+        batchChunkBytes = Math.max(1, envInt("DFS_BATCH_CHUNK_KB", 16 * 1024)) * 1024L;
+        tcpNoDelay = envInt("DFS_TCP_NODELAY", 1) != 0;
+    }
+
+    static ServerConfig fromEnv() {
+        return of(System.getenv());
+    }
+
+    /** Cấu hình từ một bảng biến tuỳ ý (dùng khi nhúng server, ví dụ trong benchmark). */
+    static ServerConfig of(Map<String, String> env) {
+        return new ServerConfig(env);
+    }
+
+    ExecutorService createExecutor() {
+        if ("platform".equalsIgnoreCase(executor)) {
+            return Executors.newFixedThreadPool(threads);
+        }
+        return Executors.newVirtualThreadPerTaskExecutor();
+    }
+
+    int envInt(String name, int def) {
+        String v = env.get(name);
+        if (v != null) {
+            try { return Integer.parseInt(v.trim()); } catch (Exception ignored) {}
+        }
+        return def;
+    }
+
+    String envString(String name, String def) {
+        String v = env.get(name);
+        return v == null || v.isBlank() ? def : v.trim();
+    }
+}
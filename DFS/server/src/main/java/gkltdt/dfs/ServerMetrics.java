@@ -0,0 +1,216 @@
+package gkltdt.dfs;
+
+import com.sun.net.httpserver.Filter;
+import com.sun.net.httpserver.HttpExchange;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * ServerMetrics — số đo cho GET /metrics (định dạng text của Prometheus).
+ * Mọi bộ đếm là LongAdder: luồng request chỉ cộng vào ô (stripe) riêng, không khoá, không CAS tranh chấp;
+ * chỉ lúc xuất /metrics mới cộng dồn các ô.
+ * - dfs_http_requests_total{path,status}, dfs_http_request_duration_seconds{path} (histogram),
+ *   dfs_http_response_bytes_total{path} (byte thân response sau nén), dfs_http_requests_in_flight{path}
+ * - dfs_traversals_total, dfs_traversal_vertices_visited_total, dfs_traversal_steps_total
+ * - dfs_trace_build_seconds (DfsTrace.record, GraphAnalysis.run) và dfs_serialize_seconds (render + gzip; khi stream thì
+ *   gồm cả thời gian ghi ra socket) — cùng bucket để so sánh trực tiếp
+ */
+final class ServerMetrics {
+
+    static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    private static final double[] LATENCY_BUCKETS = {
+            0.0005, 0.001, 0.0025, 0.005, 0.01, 0.025, 0.05, 0.1, 0.25, 0.5, 1, 2.5, 5, 10};
+
+    private final List<Endpoint> endpoints = new CopyOnWriteArrayList<>();
+
+    private final LongAdder traversals = new LongAdder();
+    private final LongAdder verticesVisited = new LongAdder();
+    private final LongAdder stepsEmitted = new LongAdder();
+    private final Histogram traceBuild = new Histogram(LATENCY_BUCKETS);
+    private final Histogram serialize = new Histogram(LATENCY_BUCKETS);
+
+    /** Filter gắn vào một context: đo thời gian, status, số byte và số request đang xử lý. */
+    Filter filter(String path) {
+        Endpoint ep = new Endpoint(path);
+        endpoints.add(ep);
+        return new Filter() {
+            @Override
+            public void doFilter(HttpExchange exchange, Chain chain) throws IOException {
+                long t0 = System.nanoTime();
+                ep.inFlight.increment();
+                CountingOutputStream body = new CountingOutputStream(exchange.getResponseBody());
+                exchange.setStreams(null, body);
+                try {
+                    chain.doFilter(exchange);
+                } finally {
+                    ep.inFlight.decrement();
+                    // Handler ném exception trước khi gửi header: server đóng kết nối, tính như 500
+                    int status = exchange.getResponseCode();
+                    ep.record(status > 0 ? status : 500, body.count, System.nanoTime() - t0);
+                }
+            }
+
+            @Override
+            public String description() {
+                return "metrics " + path;
+            }
+        };
+    }
+
+    void traversal(DfsTrace trace, long buildNanos) {
+        traversals.increment();
+        verticesVisited.add(trace.visitedCount());
+        stepsEmitted.add(trace.size());
+        traceBuild.observe(buildNanos);
+    }
+
+    /** Phân tích toàn đồ thị (/graph/analysis): thời gian tính vào dfs_trace_build_seconds như một lượt /dfs. */
+    void analysis(GraphAnalysis analysis, long buildNanos) {
+        traversals.increment();
+        verticesVisited.add(analysis.visitedCount());
+        traceBuild.observe(buildNanos);
+    }
+
+    /** Lượt duyệt không ghi vết (/dfs/batch): chỉ đếm lượt và số đỉnh đã thăm. */
+    void traversals(long count, long vertices) {
+        traversals.add(count);
+        verticesVisited.add(vertices);
+    }
+
+    void serialized(long nanos) {
+        serialize.observe(nanos);
+    }
+
+    void write(Writer out) throws IOException {
+        out.write("# HELP dfs_http_requests_total Số request đã xử lý theo context và status.\n");
+        out.write("# TYPE dfs_http_requests_total counter\n");
+        for (Endpoint ep : endpoints) {
+            for (Map.Entry<Integer, LongAdder> e : new TreeMap<>(ep.byStatus).entrySet()) {
+                out.write("dfs_http_requests_total{path=\"" + ep.path + "\",status=\"" + e.getKey() + "\"} "
+                        + e.getValue().sum() + "\n");
+            }
+        }
+        out.write("# HELP dfs_http_request_duration_seconds Thời gian xử lý request (tới khi handler trả về).\n");
+        out.write("# TYPE dfs_http_request_duration_seconds histogram\n");
+        for (Endpoint ep : endpoints) {
+            ep.latency.write(out, "dfs_http_request_duration_seconds", "path=\"" + ep.path + "\",");
+        }
+        out.write("# HELP dfs_http_response_bytes_total Tổng byte thân response (sau nén).\n");
+        out.write("# TYPE dfs_http_response_bytes_total counter\n");
+        for (Endpoint ep : endpoints) {
+            out.write("dfs_http_response_bytes_total{path=\"" + ep.path + "\"} " + ep.responseBytes.sum() + "\n");
+        }
+        out.write("# HELP dfs_http_requests_in_flight Số request đang xử lý.\n");
+        out.write("# TYPE dfs_http_requests_in_flight gauge\n");
+        for (Endpoint ep : endpoints) {
+            out.write("dfs_http_requests_in_flight{path=\"" + ep.path + "\"} " + ep.inFlight.sum() + "\n");
+        }
+
+        out.write("# HELP dfs_traversals_total Số lượt duyệt DFS đã chạy (không tính cache hit / 304).\n");
+        out.write("# TYPE dfs_traversals_total counter\n");
+        out.write("dfs_traversals_total " + traversals.sum() + "\n");
+        out.write("# HELP dfs_traversal_vertices_visited_total Tổng số đỉnh đã thăm.\n");
+        out.write("# TYPE dfs_traversal_vertices_visited_total counter\n");
+        out.write("dfs_traversal_vertices_visited_total " + verticesVisited.sum() + "\n");
+        out.write("# HELP dfs_traversal_steps_total Tổng số bước (push/visit/pop) đã ghi vết.\n");
+        out.write("# TYPE dfs_traversal_steps_total counter\n");
+        out.write("dfs_traversal_steps_total " + stepsEmitted.sum() + "\n");
+        out.write("# HELP dfs_trace_build_seconds Thời gian duyệt và ghi vết (DfsTrace.record) / phân tích (GraphAnalysis.run).\n");
+        out.write("# TYPE dfs_trace_build_seconds histogram\n");
+        traceBuild.write(out, "dfs_trace_build_seconds", "");
+        out.write("# HELP dfs_serialize_seconds Thời gian render response từ vết (kể cả gzip / stream).\n");
+        out.write("# TYPE dfs_serialize_seconds histogram\n");
+        serialize.write(out, "dfs_serialize_seconds", "");
+    }
+
+    private static final class Endpoint {
+        final String path;
+        final ConcurrentHashMap<Integer, LongAdder> byStatus = new ConcurrentHashMap<>();
+        final Histogram latency = new Histogram(LATENCY_BUCKETS);
+        final LongAdder responseBytes = new LongAdder();
+        final LongAdder inFlight = new LongAdder();
+
+        Endpoint(String path) {
+            this.path = path;
+        }
+
+        void record(int status, long bytes, long nanos) {
+            LongAdder c = byStatus.get(status); // đường nóng chỉ đọc; status lần đầu gặp mới phải chèn
+            if (c == null) c = byStatus.computeIfAbsent(status, k -> new LongAdder());
+            c.increment();
+            responseBytes.add(bytes);
+            latency.observe(nanos);
+        }
+    }
+
+    /** Histogram bucket cố định (giây); mỗi bucket đếm riêng, cộng dồn (le) khi xuất. */
+    private static final class Histogram {
+        private final long[] boundsNanos;
+        private final String[] labels;
+        private final LongAdder[] counts;
+        private final LongAdder sumNanos = new LongAdder();
+
+        Histogram(double[] boundsSeconds) {
+            boundsNanos = new long[boundsSeconds.length];
+            labels = new String[boundsSeconds.length];
+            counts = new LongAdder[boundsSeconds.length + 1];
+            for (int i = 0; i < boundsSeconds.length; i++) {
+                boundsNanos[i] = Math.round(boundsSeconds[i] * 1e9);
+                labels[i] = BigDecimal.valueOf(boundsSeconds[i]).stripTrailingZeros().toPlainString();
+            }
+            for (int i = 0; i < counts.length; i++) counts[i] = new LongAdder();
+        }
+
+        void observe(long nanos) {
+            int i = 0;
+            while (i < boundsNanos.length && nanos > boundsNanos[i]) i++;
+            counts[i].increment();
+            sumNanos.add(nanos);
+        }
+
+        /** labelPrefix rỗng hoặc dạng {@code path="/dfs",} (có dấu phẩy cuối). */
+        void write(Writer out, String name, String labelPrefix) throws IOException {
+            long cumulative = 0;
+            for (int i = 0; i < counts.length; i++) {
+                cumulative += counts[i].sum();
+                String le = i < labels.length ? labels[i] : "+Inf";
+                out.write(name + "_bucket{" + labelPrefix + "le=\"" + le + "\"} " + cumulative + "\n");
+            }
+            String braces = labelPrefix.isEmpty() ? "" : "{" + labelPrefix.substring(0, labelPrefix.length() - 1) + "}";
+            out.write(name + "_sum" + braces + " " + sumNanos.sum() / 1e9 + "\n");
+            out.write(name + "_count" + braces + " " + cumulative + "\n");
+        }
+    }
+
+    /** Đếm byte thân response đi qua; FilterOutputStream mặc định ghi từng byte nên override write(byte[]). */
+    private static final class CountingOutputStream extends FilterOutputStream {
+        long count; // mỗi exchange một luồng ghi
+
+        CountingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package gkltdt.dfs;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+
+/**
+ * TraversalPool — chạy lượt duyệt + render trên {@code max} platform thread riêng, không trên thread của HttpServer.
+ * - Nhận / từ chối ngay khi gọi (tryAcquire, trước khi việc nặng bắt đầu): đủ {@code max} lượt thì trả false
+ *   để handler gửi 503, không xếp hàng ở đâu cả
+ * - Việc nặng CPU không chiếm carrier của virtual thread (số carrier = số CPU) hay thread DFS_THREADS,
+ *   nên GET / và /metrics vẫn được phục vụ khi /dfs quá tải
+ * - Thread gọi chỉ chờ kết quả; virtual thread nhả carrier trong lúc chờ
+ */
+final class TraversalPool {
+
+    /** Một lượt duyệt kèm ghi response; chạy trên thread của pool. */
+    interface Work {
+        void run() throws IOException;
+    }
+
+    private final Semaphore permits;
+    private final ExecutorService workers;
+
+    TraversalPool(int max) {
+        this.permits = new Semaphore(max);
+        this.workers = Executors.newFixedThreadPool(max, Thread.ofPlatform().name("dfs-traversal-", 0).daemon(true).factory());
+    }
+
+    /** Chạy {@code work} và chờ xong; false (không chạy gì) nếu đã có đủ {@code max} lượt đang chạy. */
+    boolean run(Work work) throws IOException {
+        if (!permits.tryAcquire()) return false;
+        Future<?> f;
+        try {
+            f = workers.submit(() -> {
+                try {
+                    work.run();
+                } finally {
+                    permits.release(); // số permit = số thread: task không bao giờ phải chờ trong hàng đợi
+                }
+                return null;
+            });
+        } catch (RejectedExecutionException e) {
+            permits.release();
+            throw e;
+        }
+        try {
+            f.get();
+        } catch (InterruptedException e) {
+            // không cancel: task đã nhận phải tự chạy xong để trả permit (ghi vào exchange đã đóng sẽ lỗi và dừng)
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("bị ngắt khi chờ lượt duyệt");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException io) throw io;
+            if (cause instanceof RuntimeException re) throw re;
+            if (cause instanceof Error err) throw err;
+            throw new IOException(cause);
+        }
+        return true;
+    }
+}
@@ -0,0 +1,138 @@
+package gkltdt.dfs;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BinaryTraceTest {
+
+    /** Đọc lại bố cục trong tài liệu của BinaryTrace, đối chiếu từng trường với vết gốc. */
+    private static final class Reader {
+        final byte[] b;
+        int p;
+
+        Reader(byte[] b) {
+            this.b = b;
+        }
+
+        int u8() { return b[p++] & 0xFF; }
+
+        long varint() {
+            long x = 0;
+            for (int shift = 0; ; shift += 7) {
+                int c = u8();
+                x |= (long) (c & 0x7F) << shift;
+                if ((c & 0x80) == 0) return x;
+            }
+        }
+    }
+
+    private static byte[] encode(DfsTrace trace, long version) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        BinaryTrace.write(trace, version, out);
+        return out.toByteArray();
+    }
+
+    private static void assertRoundTrip(DfsTrace trace, long version) throws IOException {
+        Reader in = new Reader(encode(trace, version));
+        assertEquals('D', in.u8());
+        assertEquals('F', in.u8());
+        assertEquals('S', in.u8());
+        assertEquals('B', in.u8());
+        assertEquals(1, in.u8());
+        assertEquals(version, in.varint());
+        int n = (int) in.varint();
+        assertEquals(trace.vertexCount(), n);
+        assertEquals(trace.start(), in.varint());
+        int steps = (int) in.varint();
+        assertEquals(trace.size(), steps);
+        int pushes = (int) in.varint();
+        int interval = (int) in.varint();
+        assertEquals(Math.max(256, (n + 7) / 8), interval);
+        int checkpoints = (int) in.varint();
+        assertEquals(steps / interval, checkpoints);
+
+        int[] actions = new int[steps];
+        int pushCount = 0;
+        for (int i = 0; i < steps; i++) {
+            actions[i] = in.u8();
+            assertEquals(trace.action(i), actions[i]);
+            if (actions[i] == DfsKernel.PUSH) pushCount++;
+        }
+        assertEquals(pushCount, pushes);
+
+        // node của VISIT / POP suy ra từ đỉnh trên cùng stack
+        int[] stack = new int[Math.max(1, n)];
+        int depth = 0;
+        boolean[] visited = new boolean[n];
+        int visitedCount = 0;
+        int[][] expectedCp = new int[checkpoints][];
+        boolean[][] expectedBits = new boolean[checkpoints][];
+        for (int i = 0; i < steps; i++) {
+            int node;
+            if (actions[i] == DfsKernel.PUSH) {
+                node = (int) in.varint();
+                stack[depth++] = node;
+            } else {
+                node = stack[depth - 1];
+                if (actions[i] == DfsKernel.VISIT) {
+                    visited[node] = true;
+                    visitedCount++;
+                } else {
+                    depth--;
+                }
+            }
+            assertEquals(trace.node(i), node, "bước " + i);
+            if ((i + 1) % interval == 0 && (i + 1) / interval <= checkpoints) {
+                int c = (i + 1) / interval - 1;
+                expectedCp[c] = new int[] {visitedCount, depth, depth > 0 ? stack[depth - 1] + 1 : 0};
+                expectedBits[c] = visited.clone();
+            }
+        }
+
+        for (int c = 0; c < checkpoints; c++) {
+            assertEquals(expectedCp[c][0], in.varint(), "checkpoint " + c);
+            assertEquals(expectedCp[c][1], in.varint());
+            assertEquals(expectedCp[c][2], in.varint());
+            int base = in.p;
+            for (int v = 0; v < n; v++) {
+                boolean bit = (in.b[base + (v >>> 3)] & (1 << (v & 7))) != 0;
+                assertEquals(expectedBits[c][v], bit, "checkpoint " + c + " đỉnh " + v);
+            }
+            in.p += (n + 7) / 8;
+        }
+        assertEquals(in.b.length, in.p, "thừa byte cuối vết");
+    }
+
+    @Test
+    void randomGraphsRoundTrip() throws IOException {
+        Random r = new Random(4);
+        for (int t = 0; t < 300; t++) {
+            int n = 1 + r.nextInt(300);
+            CsrGraph g = TestGraphs.random(r, n, r.nextInt(3 * n + 1), r.nextBoolean());
+            assertRoundTrip(DfsTrace.record(g, r.nextInt(n)), r.nextLong(1L << 52));
+        }
+    }
+
+    @Test
+    void longTraceHasCheckpoints() throws IOException {
+        CsrGraph g = TestGraphs.path(5000); // K = 625, ~15000 bước
+        DfsTrace trace = DfsTrace.record(g, 2500);
+        assertTrue(trace.size() / 625 > 20);
+        assertRoundTrip(trace, (1L << 52) + 7);
+
+        CsrGraph dense = TestGraphs.random(new Random(5), 700, 5000, false);
+        assertRoundTrip(DfsTrace.record(dense, 0), 1);
+
+        // đường 400 đỉnh trong đồ thị 2000 đỉnh, duyệt từ đầu mút: stack sâu đúng bằng số PUSH
+        CsrGraph.Builder b = CsrGraph.builder(2000);
+        for (int v = 0; v + 1 < 400; v++) b.addEdge(v, v + 1);
+        DfsTrace deep = DfsTrace.record(b.build(), 0);
+        assertTrue(deep.size() / 256 > 3);
+        assertRoundTrip(deep, 2);
+    }
+}
@@ -0,0 +1,96 @@
+package gkltdt.dfs;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CsrGraphTest {
+
+    @Test
+    void builderSortsAndDeduplicates() {
+        CsrGraph g = CsrGraph.builder(4).addEdge(2, 0).addEdge(0, 2).addEdge(0, 1).addEdge(3, 3).addEdge(3, 3).build();
+        assertEquals(4, g.vertexCount());
+        assertEquals(3, g.edgeCount());
+        assertEquals(5, g.arcCount()); // 0-1, 0-2 hai chiều + khuyên 3-3 một lần
+        assertEquals(List.of(new TreeSet<>(List.of(1, 2)), new TreeSet<>(List.of(0)), new TreeSet<>(List.of(0)),
+                new TreeSet<>(List.of(3))), TestGraphs.adjacency(g));
+        assertTrue(g.hasEdge(2, 0));
+        assertFalse(g.hasEdge(1, 2));
+        assertFalse(g.hasEdge(0, 9));
+
+        CsrGraph d = CsrGraph.builder().directed(true).addEdge(0, 5).addEdge(0, 5).build();
+        assertEquals(6, d.vertexCount());
+        assertEquals(1, d.edgeCount());
+        assertTrue(d.hasEdge(0, 5));
+        assertFalse(d.hasEdge(5, 0));
+    }
+
+    @Test
+    void addAndRemoveMatchSetModel() {
+        Random r = new Random(3);
+        for (int t = 0; t < 300; t++) {
+            boolean directed = r.nextBoolean();
+            int n = 1 + r.nextInt(10);
+            CsrGraph g = TestGraphs.random(r, n, r.nextInt(2 * n + 1), directed);
+            List<TreeSet<Integer>> model = TestGraphs.adjacency(g);
+            for (int batch = 0; batch < 6; batch++) {
+                int size = r.nextInt(6);
+                int[] us = new int[size], vs = new int[size];
+                boolean add = r.nextBoolean();
+                int bound = add ? n + 3 : n + 2; // thêm có thể mở rộng số đỉnh; xoá ngoài phạm vi bị bỏ qua
+                for (int i = 0; i < size; i++) {
+                    us[i] = r.nextInt(bound);
+                    vs[i] = r.nextInt(bound);
+                }
+                List<TreeSet<Integer>> before = TestGraphs.adjacency(g);
+                CsrGraph next = add ? g.withEdgesAdded(us, vs) : g.withEdgesRemoved(us, vs);
+                assertEquals(before, TestGraphs.adjacency(g), "đồ thị gốc không được đổi");
+                apply(model, us, vs, add, directed);
+                assertEquals(model, TestGraphs.adjacency(next), "đồ thị #" + t + " lô " + batch);
+                assertEquals(directed, next.isDirected());
+                assertEquals(CsrGraph.countEdges(next), next.edgeCount());
+                g = next;
+                n = g.vertexCount();
+            }
+        }
+    }
+
+    private static void apply(List<TreeSet<Integer>> model, int[] us, int[] vs, boolean add, boolean directed) {
+        for (int i = 0; i < us.length; i++) {
+            int u = us[i], v = vs[i];
+            if (add) {
+                while (model.size() <= Math.max(u, v)) model.add(new TreeSet<>());
+                model.get(u).add(v);
+                if (!directed) model.get(v).add(u);
+            } else if (u < model.size() && v < model.size()) {
+                model.get(u).remove(v);
+                if (!directed) model.get(v).remove(u);
+            }
+        }
+    }
+
+    @Test
+    void mismatchedBatchIsRejected() {
+        CsrGraph g = TestGraphs.path(3);
+        assertThrows(IllegalArgumentException.class, () -> g.withEdgesAdded(new int[] {0}, new int[0]));
+        assertThrows(IllegalArgumentException.class, () -> g.withEdgesRemoved(new int[0], new int[] {1}));
+        assertThrows(IllegalArgumentException.class, () -> g.withEdgesAdded(new int[] {-1}, new int[] {0}));
+    }
+
+    @Test
+    void removingEverythingKeepsVertices() {
+        CsrGraph g = TestGraphs.path(4);
+        List<int[]> es = new ArrayList<>(TestGraphs.edges(g));
+        int[] us = es.stream().mapToInt(e -> e[1]).toArray(); // xoá theo chiều ngược: vô hướng vẫn khớp
+        int[] vs = es.stream().mapToInt(e -> e[0]).toArray();
+        CsrGraph empty = g.withEdgesRemoved(us, vs);
+        assertEquals(4, empty.vertexCount());
+        assertEquals(0, empty.edgeCount());
+        assertEquals(0, empty.arcCount());
+    }
+}
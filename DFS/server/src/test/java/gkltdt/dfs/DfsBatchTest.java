@@ -0,0 +1,112 @@
+package gkltdt.dfs;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DfsBatchTest {
+
+    /** Nhãn tham chiếu: BFS trên đồ thị coi như vô hướng, đánh số theo đỉnh nhỏ nhất của thành phần. */
+    private static int[] bfsLabels(CsrGraph g) {
+        int n = g.vertexCount();
+        List<List<Integer>> adj = new ArrayList<>();
+        for (int v = 0; v < n; v++) adj.add(new ArrayList<>());
+        for (int[] e : TestGraphs.edges(g)) {
+            adj.get(e[0]).add(e[1]);
+            adj.get(e[1]).add(e[0]);
+        }
+        int[] labels = new int[n];
+        Arrays.fill(labels, -1);
+        int next = 0;
+        for (int s = 0; s < n; s++) {
+            if (labels[s] >= 0) continue;
+            ArrayDeque<Integer> queue = new ArrayDeque<>(List.of(s));
+            labels[s] = next;
+            while (!queue.isEmpty()) {
+                for (int v : adj.get(queue.poll())) {
+                    if (labels[v] < 0) {
+                        labels[v] = next;
+                        queue.add(v);
+                    }
+                }
+            }
+            next++;
+        }
+        return labels;
+    }
+
+    @Test
+    void componentLabelsMatchBfs() {
+        Random r = new Random(21);
+        for (int round = 0; round < 40; round++) {
+            int n = 1 + r.nextInt(200);
+            CsrGraph g = TestGraphs.random(r, n, r.nextInt(2 * n), round % 2 == 1);
+            assertArrayEquals(bfsLabels(g), DfsBatch.componentLabels(g), "round " + round);
+        }
+        // có hướng: 2 -> 0 và 2 -> 1 nối 0 với 1 thành một thành phần yếu
+        CsrGraph g = CsrGraph.builder(4).directed(true).addEdge(2, 0).addEdge(2, 1).build();
+        assertArrayEquals(new int[] {0, 0, 0, 1}, DfsBatch.componentLabels(g));
+    }
+
+    /** Kết quả mong đợi của writeTraversals: từng start một, bằng kernel riêng, nối theo thứ tự. */
+    private static String expected(CsrGraph g, int[] starts, boolean reach) {
+        DfsKernel k = new DfsKernel(g.vertexCount());
+        StringBuilder sb = new StringBuilder();
+        int total = starts == null ? g.vertexCount() : starts.length;
+        for (int i = 0; i < total; i++) {
+            int start = starts == null ? i : starts[i];
+            k.run(g, start, null);
+            int[] vs = new int[k.visitedCount()];
+            for (int j = 0; j < vs.length; j++) vs[j] = k.visitOrder(j);
+            if (reach) Arrays.sort(vs);
+            if (i > 0) sb.append(',');
+            sb.append("{\"start\":").append(start).append(",\"count\":").append(vs.length).append(",\"vertices\":[");
+            for (int j = 0; j < vs.length; j++) sb.append(j > 0 ? "," : "").append(vs[j]);
+            sb.append("]}");
+        }
+        return sb.toString();
+    }
+
+    @Test
+    void resultsStayInStartOrderAcrossChunks() throws IOException {
+        // một thành phần lớn giữa nhiều đỉnh cô lập: số byte mỗi start chênh nhau rất xa
+        CsrGraph.Builder b = CsrGraph.builder(3000);
+        Random r = new Random(22);
+        for (int i = 0; i < 3000; i++) b.addEdge(r.nextInt(1000), r.nextInt(1000));
+        CsrGraph g = b.build();
+        int[] some = new int[500];
+        for (int i = 0; i < some.length; i++) some[i] = r.nextInt(3000);
+        some[1] = some[0]; // start lặp lại vẫn cho một kết quả mỗi lần
+
+        KernelPool kernels = new KernelPool(4);
+        for (int parallelism : new int[] {1, 3}) {
+            // 1 byte: mỗi chunk chỉ chắc chắn được start đầu; 20 KB: cắt giữa chừng; 1 GB: không bao giờ cắt
+            for (long chunkBytes : new long[] {1, 20_000, 1L << 30}) {
+                DfsBatch batch = new DfsBatch(parallelism, kernels, chunkBytes);
+                for (int[] starts : new int[][] {null, some, {2999}}) {
+                    for (boolean reach : new boolean[] {false, true}) {
+                        ByteArrayOutputStream out = new ByteArrayOutputStream();
+                        long visited = batch.writeTraversals(g, starts, reach, out);
+                        String want = expected(g, starts, reach);
+                        String msg = parallelism + " / " + chunkBytes + " / " + reach;
+                        assertEquals(want, out.toString(StandardCharsets.US_ASCII), msg);
+                        long count = 0;
+                        for (String part : want.split("\"count\":")) {
+                            if (!part.startsWith("{")) count += Long.parseLong(part.substring(0, part.indexOf(',')));
+                        }
+                        assertEquals(count, visited, msg);
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package gkltdt.dfs;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DfsKernelTest {
+
+    /** Một bước: action, node, stack (đỉnh trên cùng trước) và visited sau bước đó. */
+    private record Step(int action, int node, List<Integer> stack, boolean[] visited) {
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Step s && action == s.action && node == s.node && stack.equals(s.stack)
+                    && Arrays.equals(visited, s.visited);
+        }
+
+        @Override
+        public int hashCode() { return node; }
+
+        @Override
+        public String toString() {
+            return DfsKernel.actionName(action) + " " + node + " " + stack;
+        }
+    }
+
+    /** Thuật toán ban đầu của dfsIterativeJson: Deque + stack.contains, quét lại khoảng kề mỗi vòng. */
+    private static List<Step> baseline(CsrGraph g, int start) {
+        boolean[] visited = new boolean[g.vertexCount()];
+        Deque<Integer> stack = new ArrayDeque<>();
+        List<Step> steps = new ArrayList<>();
+        stack.push(start);
+        steps.add(new Step(DfsKernel.PUSH, start, new ArrayList<>(stack), visited.clone()));
+        while (!stack.isEmpty()) {
+            int v = stack.peek();
+            if (!visited[v]) {
+                visited[v] = true;
+                steps.add(new Step(DfsKernel.VISIT, v, new ArrayList<>(stack), visited.clone()));
+            }
+            Integer next = null;
+            for (int i = g.begin(v); i < g.end(v); i++) {
+                int u = g.target(i);
+                if (!visited[u] && !stack.contains(u)) {
+                    next = u;
+                    break;
+                }
+            }
+            if (next != null) {
+                stack.push(next);
+                steps.add(new Step(DfsKernel.PUSH, next, new ArrayList<>(stack), visited.clone()));
+            } else {
+                int popped = stack.pop();
+                steps.add(new Step(DfsKernel.POP, popped, new ArrayList<>(stack), visited.clone()));
+            }
+        }
+        return steps;
+    }
+
+    private static List<Step> kernelSteps(DfsKernel k, CsrGraph g, int start) {
+        List<Step> steps = new ArrayList<>();
+        k.run(g, start, (action, node, kernel) -> {
+            List<Integer> stack = new ArrayList<>();
+            for (int i = 0; i < kernel.stackDepth(); i++) stack.add(kernel.stackFromTop(i));
+            boolean[] visited = new boolean[g.vertexCount()];
+            for (int v = 0; v < visited.length; v++) visited[v] = kernel.isVisited(v);
+            steps.add(new Step(action, node, stack, visited));
+        });
+        return steps;
+    }
+
+    @Test
+    void kernelMatchesBaselineAlgorithm() {
+        Random r = new Random(1);
+        for (int t = 0; t < 400; t++) {
+            int n = 1 + r.nextInt(14);
+            CsrGraph g = TestGraphs.random(r, n, r.nextInt(3 * n + 1), r.nextBoolean());
+            DfsKernel k = new DfsKernel(n); // dùng lại cho mọi start: kiểm tra cả reset
+            for (int start = 0; start < n; start++) {
+                List<Step> expected = baseline(g, start);
+                assertEquals(expected, kernelSteps(k, g, start), "đồ thị #" + t + ", start " + start);
+                List<Integer> order = new ArrayList<>();
+                for (Step s : expected) if (s.action == DfsKernel.VISIT) order.add(s.node);
+                assertEquals(order.size(), k.visitedCount());
+                for (int i = 0; i < order.size(); i++) assertEquals(order.get(i), k.visitOrder(i));
+            }
+        }
+    }
+
+    @Test
+    void traceCursorReplaysEveryStep() {
+        Random r = new Random(2);
+        KernelPool pool = new KernelPool(1);
+        for (int t = 0; t < 200; t++) {
+            int n = 1 + r.nextInt(20);
+            CsrGraph g = TestGraphs.random(r, n, r.nextInt(3 * n + 1), r.nextBoolean());
+            int start = r.nextInt(n);
+            List<Step> expected = baseline(g, start);
+            DfsKernel k = pool.acquire(n);
+            DfsTrace trace = DfsTrace.record(g, start, k, 1 + r.nextInt(5));
+            pool.release(k);
+
+            assertEquals(expected.size(), trace.size());
+            DfsTrace.Cursor c = trace.cursor();
+            for (int i = 0; i < expected.size(); i++) {
+                c.next();
+                assertCursorAt(expected.get(i), c, n);
+            }
+            for (int q = 0; q < 30; q++) {
+                int step = r.nextInt(expected.size());
+                c.seek(step);
+                assertCursorAt(expected.get(step), c, n);
+            }
+            int visits = 0;
+            for (Step s : expected) if (s.action == DfsKernel.VISIT) assertEquals(s.node, trace.visitOrder(visits++));
+            assertEquals(visits, trace.visitedCount());
+        }
+    }
+
+    private static void assertCursorAt(Step expected, DfsTrace.Cursor c, int n) {
+        assertEquals(expected.action, c.action());
+        assertEquals(expected.node, c.node());
+        List<Integer> stack = new ArrayList<>();
+        for (int i = 0; i < c.stackDepth(); i++) stack.add(c.stackFromTop(i));
+        assertEquals(expected.stack, stack);
+        for (int v = 0; v < n; v++) assertEquals(expected.visited[v], c.isVisited(v));
+    }
+
+    @Test
+    void kernelPoolDropsKernelsOfAnotherSize() {
+        KernelPool pool = new KernelPool(2);
+        DfsKernel k = pool.acquire(5);
+        pool.release(k);
+        assertSame(k, pool.acquire(5));
+        pool.release(k);
+        DfsKernel other = pool.acquire(6);
+        assertNotSame(k, other);
+        assertEquals(6, other.vertexCount());
+    }
+
+    @Test
+    void deepPathDoesNotOverflow() {
+        int n = 1_000_000;
+        CsrGraph g = TestGraphs.path(n);
+        DfsKernel k = new DfsKernel(n);
+        k.run(g, 0, null);
+        assertEquals(n, k.visitedCount());
+        assertEquals(n - 1, k.visitOrder(n - 1));
+    }
+
+    @Test
+    void rejectsGraphOfAnotherSize() {
+        DfsKernel k = new DfsKernel(3);
+        assertThrows(IllegalArgumentException.class, () -> k.run(TestGraphs.path(4), 0, null));
+        assertThrows(IllegalArgumentException.class, () -> k.run(TestGraphs.path(3), 3, null));
+    }
+}
@@ -0,0 +1,171 @@
+package gkltdt.dfs;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GraphAnalysisTest {
+
+    // ---------------- tham chiếu vét cạn ----------------
+
+    /** Số thành phần liên thông khi bỏ đỉnh {@code skipVertex} và cạnh thứ {@code skipEdge} (-1 = không bỏ). */
+    private static int components(int n, List<int[]> es, int skipVertex, int skipEdge) {
+        int[] p = new int[n];
+        for (int i = 0; i < n; i++) p[i] = i;
+        for (int k = 0; k < es.size(); k++) {
+            int[] e = es.get(k);
+            if (k == skipEdge || e[0] == skipVertex || e[1] == skipVertex) continue;
+            p[find(p, e[0])] = find(p, e[1]);
+        }
+        int c = 0;
+        for (int v = 0; v < n; v++) if (v != skipVertex && find(p, v) == v) c++;
+        return c;
+    }
+
+    private static int find(int[] p, int x) {
+        while (p[x] != x) x = p[x] = p[p[x]];
+        return x;
+    }
+
+    private static boolean hasCycle(CsrGraph g, List<int[]> es) {
+        int n = g.vertexCount();
+        if (!g.isDirected()) {
+            int[] p = new int[n];
+            for (int i = 0; i < n; i++) p[i] = i;
+            for (int[] e : es) {
+                int a = find(p, e[0]), b = find(p, e[1]);
+                if (a == b) return true;
+                p[a] = b;
+            }
+            return false;
+        }
+        int[] indeg = new int[n];
+        for (int[] e : es) indeg[e[1]]++;
+        ArrayDeque<Integer> q = new ArrayDeque<>();
+        for (int v = 0; v < n; v++) if (indeg[v] == 0) q.add(v);
+        int done = 0;
+        while (!q.isEmpty()) {
+            int u = q.poll();
+            done++;
+            for (int i = g.begin(u); i < g.end(u); i++) if (--indeg[g.target(i)] == 0) q.add(g.target(i));
+        }
+        return done < n;
+    }
+
+    private static boolean isolated(CsrGraph g, int v) {
+        for (int i = g.begin(v); i < g.end(v); i++) if (g.target(i) != v) return false;
+        return true;
+    }
+
+    private static void assertValidCycle(CsrGraph g, int[] cycle) {
+        Set<Integer> seen = new HashSet<>();
+        for (int i = 0; i < cycle.length; i++) {
+            assertTrue(seen.add(cycle[i]), "đỉnh lặp trong chu trình");
+            assertTrue(g.hasEdge(cycle[i], cycle[(i + 1) % cycle.length]), "thiếu cạnh trong chu trình");
+        }
+        if (!g.isDirected()) assertNotEquals(2, cycle.length, "vô hướng: u-v-u không phải chu trình");
+    }
+
+    // ---------------- test ----------------
+
+    @Test
+    void matchesBruteForceOnRandomGraphs() {
+        Random r = new Random(6);
+        for (int t = 0; t < 2000; t++) {
+            int n = 1 + r.nextInt(12);
+            boolean directed = r.nextBoolean();
+            CsrGraph g = TestGraphs.random(r, n, r.nextInt(2 * n + 1), directed);
+            List<int[]> es = TestGraphs.edges(g);
+            boolean cyclic = hasCycle(g, es);
+            GraphAnalysis full = GraphAnalysis.run(g, false);
+            GraphAnalysis cycleOnly = GraphAnalysis.run(g, true);
+            for (GraphAnalysis a : new GraphAnalysis[] {full, cycleOnly}) {
+                assertEquals(cyclic, a.hasCycle(), "đồ thị #" + t);
+                if (cyclic) assertValidCycle(g, a.cycle());
+                else assertNull(a.cycle());
+            }
+            assertNull(cycleOnly.topologicalOrder());
+
+            if (directed) {
+                int[] order = full.topologicalOrder();
+                assertEquals(cyclic, order == null);
+                if (order != null) {
+                    int[] pos = new int[n];
+                    for (int i = 0; i < n; i++) pos[order[i]] = i;
+                    for (int[] e : es) assertTrue(pos[e[0]] < pos[e[1]], "thứ tự tô-pô sai ở cạnh " + e[0] + "->" + e[1]);
+                }
+                continue;
+            }
+
+            assertNull(full.topologicalOrder());
+            assertEquals(n, full.visitedCount());
+            int base = components(n, es, -1, -1);
+            Set<Long> bridges = new HashSet<>();
+            for (int i = 0; i < full.bridgeCount(); i++) {
+                int u = full.bridgeParent(i), v = full.bridgeChild(i);
+                assertTrue(g.hasEdge(u, v));
+                assertTrue(bridges.add((long) Math.min(u, v) * n + Math.max(u, v)), "cầu lặp");
+            }
+            for (int k = 0; k < es.size(); k++) {
+                int[] e = es.get(k);
+                boolean bridge = e[0] != e[1] && components(n, es, -1, k) > base;
+                assertEquals(bridge, bridges.contains((long) e[0] * n + e[1]), "cầu " + e[0] + "-" + e[1]);
+            }
+            for (int v = 0; v < n; v++) {
+                boolean articulation = !isolated(g, v) && components(n, es, v, -1) > base;
+                assertEquals(articulation, full.isArticulation(v), "đồ thị #" + t + " khớp " + v);
+            }
+        }
+    }
+
+    @Test
+    void smallKnownGraphs() {
+        // tam giác 0-1-2 với đuôi 2-3-4: cầu 2-3, 3-4; khớp 2, 3
+        CsrGraph g = CsrGraph.builder().addEdge(0, 1).addEdge(1, 2).addEdge(2, 0).addEdge(2, 3).addEdge(3, 4).build();
+        GraphAnalysis a = GraphAnalysis.run(g, false);
+        assertTrue(a.hasCycle());
+        assertEquals(2, a.bridgeCount());
+        assertEquals(3, a.bridgeParent(0)); // cầu sâu hơn (3-4) đóng trước
+        assertEquals(4, a.bridgeChild(0));
+        assertEquals(2, a.bridgeParent(1));
+        assertEquals(3, a.bridgeChild(1));
+        assertTrue(a.isArticulation(2) && a.isArticulation(3));
+        assertFalse(a.isArticulation(0) || a.isArticulation(1) || a.isArticulation(4));
+
+        CsrGraph loop = CsrGraph.builder(2).directed(true).addEdge(0, 1).addEdge(1, 1).build();
+        assertArrayEquals(new int[] {1}, GraphAnalysis.run(loop, false).cycle());
+
+        CsrGraph dag = CsrGraph.builder().directed(true).addEdge(0, 1).addEdge(0, 2).addEdge(1, 3).addEdge(2, 3).build();
+        assertArrayEquals(new int[] {0, 2, 1, 3}, GraphAnalysis.run(dag, false).topologicalOrder());
+    }
+
+    @Test
+    void cycleOnlyStopsAtFirstCycle() {
+        // chu trình 0-1-2 ngay đầu, phần còn lại là một đường dài: dừng sớm không thăm hết
+        int n = 10_000;
+        CsrGraph.Builder b = CsrGraph.builder(n).addEdge(0, 1).addEdge(1, 2).addEdge(2, 0);
+        for (int v = 2; v + 1 < n; v++) b.addEdge(v, v + 1);
+        CsrGraph g = b.build();
+        GraphAnalysis a = GraphAnalysis.run(g, true);
+        assertTrue(a.hasCycle());
+        assertValidCycle(g, a.cycle());
+        assertTrue(a.visitedCount() < n);
+        assertEquals(n, GraphAnalysis.run(g, false).visitedCount());
+    }
+
+    @Test
+    void deepPathDoesNotOverflow() {
+        int n = 1_000_000;
+        GraphAnalysis a = GraphAnalysis.run(TestGraphs.path(n), false);
+        assertFalse(a.hasCycle());
+        assertEquals(n - 1, a.bridgeCount());
+        assertTrue(a.isArticulation(1) && a.isArticulation(n - 2));
+        assertFalse(a.isArticulation(0) || a.isArticulation(n - 1));
+    }
+}
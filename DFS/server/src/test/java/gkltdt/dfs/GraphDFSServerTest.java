@@ -0,0 +1,240 @@
+package gkltdt.dfs;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GraphDFSServerTest {
+
+    private static int[][] parse(String body, int maxVertices, int maxEdges) throws IOException {
+        return GraphDFSServer.parseEdgeList(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)),
+                maxVertices, maxEdges);
+    }
+
+    private static int[][] parse(String body, int maxVertices) throws IOException {
+        return parse(body, maxVertices, 1000);
+    }
+
+    @Test
+    void edgeListAcceptsAnySeparator() throws IOException {
+        for (String body : new String[] {"0 1\n2 3", "0-1,2-3", "[[0,1],[2,3]]", "{\"edges\":[[0, 1], [2, 3]]}"}) {
+            int[][] e = parse(body, 10);
+            assertArrayEquals(new int[] {0, 2}, e[0], body);
+            assertArrayEquals(new int[] {1, 3}, e[1], body);
+        }
+    }
+
+    @Test
+    void edgeListRejectsSignedIds() {
+        for (String body : new String[] {"-1 5", "0 +3", "[[0,-1]]", "2 3\n-4 0"}) {
+            IllegalArgumentException ex = assertThrows(IllegalArgumentException.class, () -> parse(body, 10), body);
+            assertTrue(ex.getMessage().contains("dấu"), ex.getMessage());
+        }
+    }
+
+    @Test
+    void edgeListRejectsBadInput() {
+        assertThrows(IllegalArgumentException.class, () -> parse("", 10));
+        assertThrows(IllegalArgumentException.class, () -> parse("1 2 3", 10));
+        assertThrows(IllegalArgumentException.class, () -> parse("0 10", 10));
+        assertThrows(IllegalArgumentException.class, () -> parse("0 99999999999999999999", 10));
+    }
+
+    @Test
+    void edgeListStopsAtBatchLimit() throws IOException {
+        for (int max : new int[] {1, 2, 31, 32, 33, 100}) {
+            StringBuilder ok = new StringBuilder();
+            for (int i = 0; i < max; i++) ok.append(i % 10).append(' ').append((i + 1) % 10).append('\n');
+            assertEquals(max, parse(ok.toString(), 10, max)[0].length);
+            String over = ok + "1 2\n";
+            assertThrows(GraphDFSServer.BatchTooLargeException.class, () -> parse(over, 10, max), "max " + max);
+        }
+    }
+
+    @Test
+    void parseStartsKeepsOrderAndDuplicates() {
+        assertNull(GraphDFSServer.parseStarts("all", 5));
+        assertNull(GraphDFSServer.parseStarts(" ALL ", 5));
+        assertArrayEquals(new int[] {4, 0, 4, 2}, GraphDFSServer.parseStarts("4, 0,,4 ,2,", 5));
+        assertArrayEquals(new int[] {0}, GraphDFSServer.parseStarts("0", 1));
+        for (String bad : new String[] {"", " , ", "5", "-1", "1,x", "1.5", "99999999999"}) {
+            assertThrows(IllegalArgumentException.class, () -> GraphDFSServer.parseStarts(bad, 5), bad);
+        }
+    }
+
+    @Test
+    void batchOverHttpMatchesSingleTraversals() throws Exception {
+        CsrGraph g = TestGraphs.random(new Random(23), 400, 500, false);
+        // chunk 1 KB: kết quả phải qua nhiều chunk mà vẫn đúng thứ tự starts
+        try (TestServer s = TestServer.start(g, Map.of("DFS_BATCH_CHUNK_KB", "1", "DFS_BATCH_THREADS", "3"))) {
+            HttpResponse<byte[]> r = s.get("/dfs/batch?starts=all&mode=reach");
+            assertEquals(200, r.statusCode());
+            String body = TestServer.text(r);
+            assertTrue(body.startsWith("{\"version\":" + s.graphVersion() + ",\"mode\":\"reach\",\"count\":400,"), body);
+            DfsKernel k = new DfsKernel(400);
+            int from = 0;
+            for (int v = 0; v < 400; v++) {
+                k.run(g, v, null);
+                int[] vs = new int[k.visitedCount()];
+                for (int j = 0; j < vs.length; j++) vs[j] = k.visitOrder(j);
+                Arrays.sort(vs);
+                String one = "{\"start\":" + v + ",\"count\":" + vs.length + ",\"vertices\":"
+                        + Arrays.toString(vs).replace(" ", "") + "}";
+                int at = body.indexOf(one, from);
+                assertEquals(from == 0 ? body.indexOf("[{") + 1 : from + 1, at, "start " + v);
+                from = at + one.length();
+            }
+            assertEquals("]}", body.substring(from));
+
+            r = s.get("/dfs/batch?mode=components");
+            int[] labels = DfsBatch.componentLabels(g);
+            int count = Arrays.stream(labels).max().orElse(-1) + 1;
+            assertEquals("{\"version\":" + s.graphVersion() + ",\"mode\":\"components\",\"vertices\":400,"
+                    + "\"components\":" + count + ",\"labels\":" + Arrays.toString(labels).replace(" ", "") + "}",
+                    TestServer.text(r));
+            assertEquals(400, s.get("/dfs/batch?starts=1,x").statusCode());
+        }
+    }
+
+    @Test
+    void edgeBatchesOverHttp() throws Exception {
+        try (TestServer s = TestServer.start(TestGraphs.path(4), Map.of("DFS_MAX_BATCH_EDGES", "3"))) {
+            long v0 = s.graphVersion();
+            // cạnh đã có / cạnh không tồn tại: không đổi gì, không tạo phiên bản mới
+            HttpResponse<byte[]> r = s.send("POST", "/graph/edges", "0 1\n2 1");
+            assertEquals(200, r.statusCode());
+            assertEquals("{\"version\":" + v0 + ",\"vertices\":4,\"edges\":3,\"added\":0}", TestServer.text(r));
+            r = s.send("DELETE", "/graph/edges", "[[0,3]]");
+            assertEquals("{\"version\":" + v0 + ",\"vertices\":4,\"edges\":3,\"removed\":0}", TestServer.text(r));
+            assertEquals(v0, s.graphVersion());
+
+            r = s.send("POST", "/graph/edges", "0 3\n0 1");
+            assertEquals("{\"version\":" + (v0 + 1) + ",\"vertices\":4,\"edges\":4,\"added\":1}", TestServer.text(r));
+
+            assertEquals(413, s.send("POST", "/graph/edges", "0 2 0 2 0 2 0 2").statusCode());
+            assertEquals(400, s.send("POST", "/graph/edges", "0 -2").statusCode());
+            assertEquals(v0 + 1, s.graphVersion());
+        }
+    }
+
+    @Test
+    void deltaSizeDependsOnlyOnReachedComponent() throws Exception {
+        // 0-1-2 tách khỏi một đường 5000 đỉnh: vết delta từ 0 không được mang theo phần còn lại
+        CsrGraph.Builder b = CsrGraph.builder(5003).addEdge(0, 1).addEdge(1, 2);
+        for (int v = 3; v + 1 < 5003; v++) b.addEdge(v, v + 1);
+        try (TestServer s = TestServer.start(b.build(), Map.of())) {
+            HttpResponse<byte[]> r = s.get("/dfs?start=0&format=delta");
+            assertEquals(200, r.statusCode());
+            String version = r.headers().firstValue("X-Graph-Version").orElseThrow();
+            assertEquals("{\"version\":" + version + ",\"start\":0,\"format\":\"delta\","
+                    + "\"actionNames\":[\"PUSH\",\"VISIT\",\"POP\"],\"actions\":[0,1,0,1,0,1,2,2,2],"
+                    + "\"nodes\":[0,0,1,1,2,2,2,1,0],\"visitedOrder\":[0,1,2]}", TestServer.text(r));
+        }
+    }
+
+    private static byte[] gunzip(byte[] b) throws IOException {
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(b))) {
+            return in.readAllBytes();
+        }
+    }
+
+    /** Body của {@code path} trên {@code ref} (cache thường), đổi phiên bản đồ thị sang phiên bản của {@code s}. */
+    private static byte[] expectedBody(TestServer ref, TestServer s, int start, String format) throws Exception {
+        if (format.equals("bin")) return s.app.dfsIterativeBin(start);
+        if (format.equals("json")) return s.app.dfsIterativeJson(start).getBytes(StandardCharsets.UTF_8);
+        HttpResponse<byte[]> r = ref.get("/dfs?start=" + start + "&format=" + format);
+        String version = "\"version\":" + s.graphVersion() + ",";
+        return TestServer.text(r).replace("\"version\":" + ref.graphVersion() + ",", version)
+                .getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void streamedBodiesMatchInMemoryRender() throws Exception {
+        CsrGraph g = TestGraphs.random(new Random(8), 300, 900, false);
+        // cache thường, cache tắt (stream từ byte đầu) và entry 1 KB (đệm rồi tràn sang stream)
+        try (TestServer plain = TestServer.start(g, Map.of());
+             TestServer off = TestServer.start(g, Map.of("DFS_CACHE_MB", "0"));
+             TestServer small = TestServer.start(g, Map.of("DFS_CACHE_ENTRY_KB", "1"))) {
+            for (int start : new int[] {0, 17, 299}) {
+                for (String format : new String[] {"json", "delta", "bin", "text"}) {
+                    String path = "/dfs?start=" + start + "&format=" + format;
+                    for (TestServer s : new TestServer[] {plain, off, small}) {
+                        byte[] expected = expectedBody(plain, s, start, format);
+                        HttpResponse<byte[]> r = s.get(path);
+                        assertEquals(200, r.statusCode());
+                        if (s != plain) {
+                            assertEquals("chunked", r.headers().firstValue("Transfer-Encoding").orElse(null), path);
+                        }
+                        assertArrayEquals(expected, r.body(), path);
+                        HttpResponse<byte[]> gz = s.get(path, "Accept-Encoding", "gzip");
+                        assertEquals("gzip", gz.headers().firstValue("Content-Encoding").orElse(null));
+                        assertArrayEquals(expected, gunzip(gz.body()), path);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void etagMatching() {
+        String etag = "\"g7-0-json\"";
+        assertFalse(GraphDFSServer.etagMatches(null, etag));
+        assertTrue(GraphDFSServer.etagMatches("\"g7-0-json\"", etag));
+        assertTrue(GraphDFSServer.etagMatches("\"g7-0-json-gz\"", etag));
+        assertTrue(GraphDFSServer.etagMatches("W/\"g7-0-json\"", etag));
+        assertTrue(GraphDFSServer.etagMatches("\"x\", \"g7-0-json-gz\"", etag));
+        assertTrue(GraphDFSServer.etagMatches("*", etag));
+        assertFalse(GraphDFSServer.etagMatches("\"g8-0-json\"", etag));
+        assertFalse(GraphDFSServer.etagMatches("\"g7-0-json\"", "\"g7-0-delta\""));
+    }
+
+    @Test
+    void gzipNegotiation() {
+        assertFalse(GraphDFSServer.acceptsGzip(null));
+        assertFalse(GraphDFSServer.acceptsGzip(""));
+        assertTrue(GraphDFSServer.acceptsGzip("gzip"));
+        assertTrue(GraphDFSServer.acceptsGzip("deflate, GZIP;q=0.5, br"));
+        assertTrue(GraphDFSServer.acceptsGzip("gzip;q=1.0"));
+        assertFalse(GraphDFSServer.acceptsGzip("gzip;q=0"));
+        assertFalse(GraphDFSServer.acceptsGzip("gzip; q=0.000"));
+        assertFalse(GraphDFSServer.acceptsGzip("deflate, br"));
+        assertFalse(GraphDFSServer.acceptsGzip("x-gzip"));
+    }
+
+    @Test
+    void notModifiedCarriesEtagOfClientsRepresentation() throws Exception {
+        CsrGraph g = TestGraphs.random(new Random(10), 200, 600, false);
+        for (Map<String, String> env : List.of(Map.<String, String>of(), Map.of("DFS_CACHE_MB", "0"))) {
+            try (TestServer s = TestServer.start(g, env)) {
+                for (String path : new String[] {"/dfs?start=3&format=json", "/graph/analysis"}) {
+                    HttpResponse<byte[]> gz = s.get(path, "Accept-Encoding", "gzip");
+                    String gzTag = gz.headers().firstValue("ETag").orElseThrow();
+                    assertTrue(gzTag.endsWith("-gz\""), gzTag);
+                    String tag = s.get(path).headers().firstValue("ETag").orElseThrow();
+                    assertEquals(gzTag, tag.substring(0, tag.length() - 1) + "-gz\"");
+
+                    // tag nào khớp cũng 304, nhưng ETag trả về là của bản client này sẽ nhận
+                    for (String sent : new String[] {tag, gzTag}) {
+                        HttpResponse<byte[]> r = s.get(path, "If-None-Match", sent, "Accept-Encoding", "gzip");
+                        assertEquals(304, r.statusCode());
+                        assertEquals(gzTag, r.headers().firstValue("ETag").orElse(null), path + " " + sent);
+                        r = s.get(path, "If-None-Match", sent);
+                        assertEquals(304, r.statusCode());
+                        assertEquals(tag, r.headers().firstValue("ETag").orElse(null), path + " " + sent);
+                    }
+                }
+            }
+        }
+    }
+}
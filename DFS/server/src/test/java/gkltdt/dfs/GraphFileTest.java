@@ -0,0 +1,79 @@
+package gkltdt.dfs;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GraphFileTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void writeThenOpenRoundTrips() throws IOException {
+        Random r = new Random(7);
+        for (int t = 0; t < 50; t++) {
+            int n = 1 + r.nextInt(200);
+            boolean directed = r.nextBoolean();
+            CsrGraph g = TestGraphs.random(r, n, r.nextInt(4 * n + 1), directed);
+            Path file = dir.resolve("g" + t + ".csr");
+            GraphFile.write(g, file);
+            CsrGraph m = GraphFile.open(file);
+            assertInstanceOf(MappedCsrGraph.class, m);
+            assertEquals(n, m.vertexCount());
+            assertEquals(directed, m.isDirected());
+            assertEquals(g.edgeCount(), m.edgeCount());
+            assertEquals(TestGraphs.adjacency(g), TestGraphs.adjacency(m));
+        }
+    }
+
+    @Test
+    void convertMatchesBuilder() throws IOException {
+        Path edges = dir.resolve("edges.txt");
+        Files.writeString(edges, """
+                # chú thích
+                  % chú thích thụt lề
+                  # 12 34
+                0 1 -0.5
+                \t1 2
+                2 0\r
+                3 3
+                1 0
+                4 2 7""");
+        for (boolean directed : new boolean[] {false, true}) {
+            Path out = dir.resolve("g" + directed + ".csr");
+            GraphFile.ConvertStats st = GraphFile.convert(edges, out, directed);
+            CsrGraph expected = CsrGraph.builder().directed(directed)
+                    .addEdge(0, 1).addEdge(1, 2).addEdge(2, 0).addEdge(3, 3).addEdge(1, 0).addEdge(4, 2).build();
+            CsrGraph m = GraphFile.open(out);
+            assertEquals(TestGraphs.adjacency(expected), TestGraphs.adjacency(m));
+            assertEquals(6, st.inputEdges());
+            assertEquals(5, st.vertices());
+            assertEquals(expected.edgeCount(), st.edges());
+            assertEquals(Files.size(out), st.fileBytes());
+        }
+    }
+
+    @Test
+    void convertRejectsBadInput() throws IOException {
+        Path out = dir.resolve("bad.csr");
+        for (String bad : new String[] {"0 -1\n", "+2 3\n", "0 1\n5\n"}) {
+            Path edges = dir.resolve("bad.txt");
+            Files.writeString(edges, bad);
+            assertThrows(IOException.class, () -> GraphFile.convert(edges, out, false), bad);
+        }
+    }
+
+    @Test
+    void openRejectsForeignFile() throws IOException {
+        Path f = dir.resolve("x.csr");
+        Files.write(f, new byte[100]);
+        assertThrows(IOException.class, () -> GraphFile.open(f));
+    }
+}
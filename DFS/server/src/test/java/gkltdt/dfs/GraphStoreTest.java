@@ -0,0 +1,31 @@
+package gkltdt.dfs;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GraphStoreTest {
+
+    @Test
+    void unchangedBatchKeepsSnapshot() {
+        GraphStore store = new GraphStore(TestGraphs.path(3));
+        GraphStore.Snapshot s0 = store.current();
+        assertTrue(s0.version() > 0 && s0.version() < 1L << 52);
+
+        GraphStore.Update u = store.addEdges(new int[] {1, 0}, new int[] {0, 1});
+        assertSame(s0, u.snapshot());
+        assertEquals(0, u.edgesChanged());
+        u = store.removeEdges(new int[] {0, 7}, new int[] {2, 8});
+        assertSame(s0, u.snapshot());
+        assertSame(s0, store.current());
+
+        u = store.addEdges(new int[] {0, 0}, new int[] {2, 2});
+        assertEquals(1, u.edgesChanged());
+        assertEquals(s0.version() + 1, u.snapshot().version());
+        assertSame(u.snapshot(), store.current());
+        u = store.removeEdges(new int[] {2, 1}, new int[] {0, 0});
+        assertEquals(2, u.edgesChanged());
+        assertEquals(s0.version() + 2, store.current().version());
+        assertEquals(1, store.current().graph().edgeCount());
+    }
+}
@@ -0,0 +1,126 @@
+package gkltdt.dfs;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResponseCacheTest {
+
+    private static final Random RANDOM = new Random(9);
+
+    /** Body ngẫu nhiên: gzip không nhỏ hơn nên entry chỉ tốn đúng {@code n} byte. */
+    private static ResponseCache.Entry incompressible(int n) {
+        byte[] b = new byte[n];
+        RANDOM.nextBytes(b);
+        ResponseCache.Entry e = ResponseCache.Entry.encode("application/octet-stream", "\"t\"", b);
+        assertNull(e.gzip);
+        assertEquals(n, e.size());
+        return e;
+    }
+
+    private static ResponseCache.Key key(int start) {
+        return new ResponseCache.Key(1, start, "json");
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedByBytes() {
+        ResponseCache cache = new ResponseCache(300, 1000);
+        ResponseCache.Entry a = incompressible(100), b = incompressible(100), c = incompressible(100);
+        cache.put(key(0), a);
+        cache.put(key(1), b);
+        cache.put(key(2), c);
+        assertSame(a, cache.get(key(0))); // 0 thành mới dùng nhất: 1 là cũ nhất
+        cache.put(key(3), incompressible(100));
+        assertNull(cache.get(key(1)));
+        assertSame(a, cache.get(key(0)));
+        assertSame(c, cache.get(key(2)));
+
+        // thay entry 2 bằng bản 10 byte: tổng 210, thêm 90 byte vẫn vừa khít
+        cache.put(key(2), incompressible(10));
+        cache.put(key(4), incompressible(90));
+        for (int k : new int[] {0, 2, 3, 4}) assertNotNull(cache.get(key(k)), "entry " + k);
+        cache.put(key(5), incompressible(1)); // vượt 1 byte: bỏ entry cũ nhất (0)
+        assertNull(cache.get(key(0)));
+        assertNotNull(cache.get(key(2)));
+        assertNotNull(cache.get(key(5)));
+    }
+
+    @Test
+    void entryLargerThanCacheIsNotKept() {
+        ResponseCache cache = new ResponseCache(300, 1000);
+        cache.put(key(0), incompressible(200));
+        cache.put(key(1), incompressible(301));
+        assertNull(cache.get(key(1)));
+        assertNotNull(cache.get(key(0)), "entry quá lớn không được đẩy entry khác ra");
+    }
+
+    @Test
+    void compressedCopyCountsTowardsSize() {
+        byte[] body = new byte[10_000];
+        ResponseCache.Entry e = ResponseCache.Entry.encode("text/plain", "\"t\"", body);
+        assertNotNull(e.gzip);
+        assertEquals(body.length + e.gzip.length, e.size());
+    }
+
+    @Test
+    void entryLimitAndEtag() {
+        assertEquals(0, new ResponseCache(0, 4096).entryLimit());
+        assertEquals(4096, new ResponseCache(1 << 20, 4096).entryLimit());
+        assertEquals(1000, new ResponseCache(1000, 4096).entryLimit());
+        assertEquals("\"g5-3-json\"", ResponseCache.etag(new ResponseCache.Key(5, 3, "json")));
+        assertEquals("\"g5-analysis\"", ResponseCache.etag(new ResponseCache.Key(5, -1, "analysis")));
+    }
+
+    /** Đích tràn ghi nhận số lần mở và việc đã đóng. */
+    private static final class Target extends ByteArrayOutputStream {
+        int opened;
+        boolean closed;
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+    }
+
+    @Test
+    void spillBufferKeepsBodiesThatFit() throws IOException {
+        Target t = new Target();
+        ResponseCache.SpillBuffer buf = new ResponseCache.SpillBuffer(10, () -> { t.opened++; return t; });
+        buf.write(1);
+        buf.write(new byte[] {2, 3, 4, 5, 6, 7, 8, 9, 10}, 0, 9);
+        buf.close();
+        assertFalse(buf.spilled());
+        assertArrayEquals(new byte[] {1, 2, 3, 4, 5, 6, 7, 8, 9, 10}, buf.toByteArray());
+        assertEquals(0, t.opened);
+        assertFalse(t.closed);
+    }
+
+    @Test
+    void spillBufferForwardsEverythingOnceOverLimit() throws IOException {
+        byte[] body = new byte[100_000];
+        RANDOM.nextBytes(body);
+        for (int limit : new int[] {1, 7, 8192, 99_999}) {
+            Target t = new Target();
+            ResponseCache.SpillBuffer buf = new ResponseCache.SpillBuffer(limit, () -> { t.opened++; return t; });
+            int i = 0;
+            while (i < body.length) { // xen kẽ ghi từng byte và từng khối
+                if (RANDOM.nextBoolean()) {
+                    buf.write(body[i++]);
+                } else {
+                    int len = Math.min(body.length - i, RANDOM.nextInt(20_000));
+                    buf.write(body, i, len);
+                    i += len;
+                }
+            }
+            buf.close();
+            assertTrue(buf.spilled());
+            assertEquals(1, t.opened);
+            assertTrue(t.closed);
+            assertArrayEquals(body, t.toByteArray(), "limit " + limit);
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package gkltdt.dfs;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ServerMetricsTest {
+
+    private static String exposition(ServerMetrics m) throws IOException {
+        StringWriter out = new StringWriter();
+        m.write(out);
+        return out.toString();
+    }
+
+    private static List<String> linesStartingWith(String text, String prefix) {
+        List<String> out = new ArrayList<>();
+        for (String line : text.split("\n")) if (line.startsWith(prefix)) out.add(line);
+        return out;
+    }
+
+    @Test
+    void countersAndHistograms() throws IOException {
+        ServerMetrics m = new ServerMetrics();
+        DfsTrace trace = DfsTrace.record(TestGraphs.path(5), 0); // 5 VISIT, 15 bước
+        m.traversal(trace, 300_000);              // 0.3 ms
+        m.analysis(GraphAnalysis.run(TestGraphs.path(4), false), 2_000_000_000L); // 2 s
+        m.traversals(3, 7);
+        m.serialized(20_000_000);                 // 20 ms
+        String text = exposition(m);
+
+        assertTrue(text.contains("dfs_traversals_total 5\n"), text);
+        assertTrue(text.contains("dfs_traversal_vertices_visited_total 16\n"));
+        assertTrue(text.contains("dfs_traversal_steps_total 15\n"));
+        assertEquals(List.of(
+                "dfs_trace_build_seconds_bucket{le=\"0.0005\"} 1",
+                "dfs_trace_build_seconds_bucket{le=\"0.001\"} 1",
+                "dfs_trace_build_seconds_bucket{le=\"0.0025\"} 1",
+                "dfs_trace_build_seconds_bucket{le=\"0.005\"} 1",
+                "dfs_trace_build_seconds_bucket{le=\"0.01\"} 1",
+                "dfs_trace_build_seconds_bucket{le=\"0.025\"} 1",
+                "dfs_trace_build_seconds_bucket{le=\"0.05\"} 1",
+                "dfs_trace_build_seconds_bucket{le=\"0.1\"} 1",
+                "dfs_trace_build_seconds_bucket{le=\"0.25\"} 1",
+                "dfs_trace_build_seconds_bucket{le=\"0.5\"} 1",
+                "dfs_trace_build_seconds_bucket{le=\"1\"} 1",
+                "dfs_trace_build_seconds_bucket{le=\"2.5\"} 2",
+                "dfs_trace_build_seconds_bucket{le=\"5\"} 2",
+                "dfs_trace_build_seconds_bucket{le=\"10\"} 2",
+                "dfs_trace_build_seconds_bucket{le=\"+Inf\"} 2",
+                "dfs_trace_build_seconds_sum 2.0003",
+                "dfs_trace_build_seconds_count 2"), linesStartingWith(text, "dfs_trace_build_seconds"));
+        assertTrue(text.contains("dfs_serialize_seconds_bucket{le=\"0.01\"} 0\n"));
+        assertTrue(text.contains("dfs_serialize_seconds_bucket{le=\"0.025\"} 1\n"));
+        assertTrue(text.contains("dfs_serialize_seconds_count 1\n"));
+
+        // mỗi metric có đúng một HELP và một TYPE
+        for (String name : new String[] {"dfs_http_requests_total", "dfs_http_request_duration_seconds",
+                "dfs_http_response_bytes_total", "dfs_http_requests_in_flight", "dfs_traversals_total",
+                "dfs_traversal_vertices_visited_total", "dfs_traversal_steps_total", "dfs_trace_build_seconds",
+                "dfs_serialize_seconds"}) {
+            assertEquals(1, linesStartingWith(text, "# HELP " + name + " ").size(), name);
+            assertEquals(1, linesStartingWith(text, "# TYPE " + name + " ").size(), name);
+        }
+    }
+
+    @Test
+    void endpointsAreMeasuredOverHttp() throws Exception {
+        try (TestServer s = TestServer.start(TestGraphs.path(9), Map.of())) {
+            assertEquals(200, s.get("/dfs?start=0&format=delta").statusCode());
+            assertEquals(200, s.get("/dfs?start=0&format=delta").statusCode()); // cache hit: không tính lượt duyệt
+            assertEquals(400, s.get("/dfs?start=x").statusCode());
+            int bytes = s.get("/").body().length;
+            String text = TestServer.text(s.get("/metrics"));
+
+            assertTrue(text.contains("dfs_http_requests_total{path=\"/dfs\",status=\"200\"} 2\n"), text);
+            assertTrue(text.contains("dfs_http_requests_total{path=\"/dfs\",status=\"400\"} 1\n"));
+            assertTrue(text.contains("dfs_http_requests_total{path=\"/\",status=\"200\"} 1\n"));
+            assertTrue(text.contains("dfs_http_response_bytes_total{path=\"/\"} " + bytes + "\n"));
+            assertTrue(text.contains("dfs_http_request_duration_seconds_count{path=\"/dfs\"} 3\n"));
+            assertTrue(text.contains("dfs_http_requests_in_flight{path=\"/dfs\"} 0\n"));
+            assertTrue(text.contains("dfs_traversals_total 1\n"));
+            assertTrue(text.contains("dfs_traversal_vertices_visited_total 9\n"));
+            assertFalse(text.contains("path=\"/metrics\""), "/metrics không tự đo chính nó");
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package gkltdt.dfs;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+/** Đồ thị ngẫu nhiên nhỏ và mô hình tham chiếu (danh sách kề dạng tập) dùng chung cho các test. */
+final class TestGraphs {
+
+    private TestGraphs() {}
+
+    /** Có cả khuyên, cạnh trùng và đỉnh cô lập; số đỉnh đúng bằng {@code n}. */
+    static CsrGraph random(Random r, int n, int m, boolean directed) {
+        CsrGraph.Builder b = CsrGraph.builder(n).directed(directed);
+        for (int i = 0; i < m; i++) {
+            int u = r.nextInt(n), v = r.nextInt(n);
+            if (u == v && r.nextInt(4) != 0) continue; // khuyên thưa hơn cạnh thường
+            b.addEdge(u, v);
+        }
+        return b.build();
+    }
+
+    static CsrGraph path(int n) {
+        CsrGraph.Builder b = CsrGraph.builder(n);
+        for (int v = 0; v + 1 < n; v++) b.addEdge(v, v + 1);
+        return b.build();
+    }
+
+    /** Danh sách kề của {@code g} đọc qua begin / end / target. */
+    static List<TreeSet<Integer>> adjacency(CsrGraph g) {
+        List<TreeSet<Integer>> adj = new ArrayList<>();
+        for (int v = 0; v < g.vertexCount(); v++) {
+            TreeSet<Integer> s = new TreeSet<>();
+            for (int i = g.begin(v); i < g.end(v); i++) s.add(g.target(i));
+            adj.add(s);
+        }
+        return adj;
+    }
+
+    /** Cạnh được lưu đúng một lần: (u, v) với u &lt;= v nếu vô hướng. */
+    static List<int[]> edges(CsrGraph g) {
+        List<int[]> es = new ArrayList<>();
+        for (int u = 0; u < g.vertexCount(); u++) {
+            for (int i = g.begin(u); i < g.end(u); i++) {
+                int v = g.target(i);
+                if (g.isDirected() || u <= v) es.add(new int[] {u, v});
+            }
+        }
+        return es;
+    }
+}
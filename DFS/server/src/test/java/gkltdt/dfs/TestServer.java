@@ -0,0 +1,62 @@
+package gkltdt.dfs;
+
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+/** GraphDFSServer thật trên cổng ngẫu nhiên (PORT=0) cùng một HttpClient, cho các test qua HTTP. */
+final class TestServer implements AutoCloseable {
+
+    final GraphDFSServer app;
+    final HttpServer server;
+    final URI base;
+    private final HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+    private TestServer(GraphDFSServer app, HttpServer server) {
+        this.app = app;
+        this.server = server;
+        this.base = URI.create("http://127.0.0.1:" + server.getAddress().getPort());
+    }
+
+    /** {@code env} ghi đè cấu hình mặc định (xem ServerConfig); PORT luôn là 0. */
+    static TestServer start(CsrGraph graph, Map<String, String> env) throws IOException {
+        Map<String, String> all = new HashMap<>(env);
+        all.put("PORT", "0");
+        GraphDFSServer app = new GraphDFSServer(graph);
+        return new TestServer(app, app.startHttpServer(ServerConfig.of(all)));
+    }
+
+    /** headers: cặp tên, giá trị. */
+    HttpResponse<byte[]> get(String path, String... headers) throws IOException, InterruptedException {
+        return send("GET", path, null, headers);
+    }
+
+    HttpResponse<byte[]> send(String method, String path, String body, String... headers)
+            throws IOException, InterruptedException {
+        HttpRequest.Builder b = HttpRequest.newBuilder(base.resolve(path)).method(method, body == null
+                ? HttpRequest.BodyPublishers.noBody() : HttpRequest.BodyPublishers.ofString(body));
+        for (int i = 0; i < headers.length; i += 2) b.header(headers[i], headers[i + 1]);
+        return client.send(b.build(), HttpResponse.BodyHandlers.ofByteArray());
+    }
+
+    /** Phiên bản đồ thị hiện tại (header X-Graph-Version của GET /graph/edges). */
+    long graphVersion() throws IOException, InterruptedException {
+        return Long.parseLong(get("/graph/edges").headers().firstValue("X-Graph-Version").orElseThrow());
+    }
+
+    static String text(HttpResponse<byte[]> r) {
+        return new String(r.body(), StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+}
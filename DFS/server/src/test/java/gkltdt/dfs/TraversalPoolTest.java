@@ -0,0 +1,142 @@
+package gkltdt.dfs;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.Socket;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TraversalPoolTest {
+
+    @Test
+    void rejectsImmediatelyWhenFull() throws Exception {
+        TraversalPool pool = new TraversalPool(2);
+        CountDownLatch running = new CountDownLatch(2);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicReference<String> thread = new AtomicReference<>();
+        List<Thread> callers = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            callers.add(Thread.ofVirtual().start(() -> {
+                try {
+                    assertTrue(pool.run(() -> {
+                        thread.set(Thread.currentThread().getName());
+                        running.countDown();
+                        try {
+                            release.await();
+                        } catch (InterruptedException e) {
+                            throw new AssertionError(e);
+                        }
+                    }));
+                } catch (IOException e) {
+                    throw new AssertionError(e);
+                }
+            }));
+        }
+        assertTrue(running.await(5, TimeUnit.SECONDS));
+        assertTrue(thread.get().startsWith("dfs-traversal-"), thread.get());
+        long t0 = System.nanoTime();
+        assertFalse(pool.run(() -> fail("không được chạy khi pool đầy")));
+        assertTrue(System.nanoTime() - t0 < TimeUnit.SECONDS.toNanos(1));
+
+        release.countDown();
+        for (Thread t : callers) t.join();
+        assertTrue(pool.run(() -> {}));
+        IOException ex = assertThrows(IOException.class, () -> pool.run(() -> { throw new IOException("x"); }));
+        assertEquals("x", ex.getMessage());
+        assertTrue(pool.run(() -> {}), "permit phải được trả cả khi lượt duyệt lỗi");
+    }
+
+    /** Status và header của một response đọc từ socket thô; body để nguyên chưa đọc. */
+    private record Head(int status, Map<String, String> headers) {}
+
+    private static Head readHead(InputStream in) throws IOException {
+        StringBuilder head = new StringBuilder();
+        while (head.length() < 4 || !head.substring(head.length() - 4).equals("\r\n\r\n")) {
+            int c = in.read();
+            if (c < 0) throw new IOException("kết nối đóng trước khi hết header");
+            head.append((char) c);
+        }
+        String[] lines = head.toString().split("\r\n");
+        Map<String, String> headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        for (int i = 1; i < lines.length; i++) {
+            int colon = lines[i].indexOf(':');
+            if (colon > 0) headers.put(lines[i].substring(0, colon).trim(), lines[i].substring(colon + 1).trim());
+        }
+        return new Head(Integer.parseInt(lines[0].split(" ")[1]), headers);
+    }
+
+    private static Socket request(TestServer s, String path) throws IOException {
+        Socket socket = new Socket(s.base.getHost(), s.base.getPort());
+        socket.setSoTimeout(10_000);
+        socket.getOutputStream().write(("GET " + path + " HTTP/1.1\r\nHost: localhost\r\n\r\n")
+                .getBytes(StandardCharsets.US_ASCII));
+        return socket;
+    }
+
+    @Test
+    void overloadIsShedWhileUiStaysResponsive() throws Exception {
+        // format=json trên đường 2000 đỉnh ~70 MB: client không đọc body thì lượt duyệt giữ chỗ trong pool
+        CsrGraph g = TestGraphs.path(2000);
+        int cap = 2;
+        List<Map<String, String>> configs = List.of(
+                Map.of("DFS_EXECUTOR", "virtual"),
+                Map.of("DFS_EXECUTOR", "platform"),
+                Map.of("DFS_EXECUTOR", "platform", "DFS_THREADS", Integer.toString(cap)));
+        for (Map<String, String> env : configs) {
+            Map<String, String> all = new HashMap<>(env);
+            all.put("DFS_MAX_TRAVERSALS", Integer.toString(cap));
+            all.put("DFS_CACHE_MB", "0");
+            all.put("DFS_RETRY_AFTER", "3");
+            try (TestServer s = TestServer.start(g, all)) {
+                List<Socket> held = new ArrayList<>();
+                try {
+                    for (int i = 0; i < cap; i++) {
+                        Socket socket = request(s, "/dfs?start=" + i + "&format=json");
+                        held.add(socket);
+                        assertEquals(200, readHead(socket.getInputStream()).status(), env.toString());
+                    }
+                    for (int i = 0; i < 3; i++) {
+                        try (Socket socket = request(s, "/dfs?start=" + (cap + i) + "&format=json")) {
+                            Head h = readHead(socket.getInputStream());
+                            assertEquals(503, h.status(), env.toString());
+                            assertEquals("3", h.headers().get("Retry-After"));
+                        }
+                    }
+                    try (Socket socket = request(s, "/graph/analysis")) {
+                        assertEquals(503, readHead(socket.getInputStream()).status());
+                    }
+                    try (Socket socket = request(s, "/dfs/batch?starts=all")) {
+                        assertEquals(503, readHead(socket.getInputStream()).status());
+                    }
+                    long t0 = System.nanoTime();
+                    assertEquals(200, s.get("/").statusCode());
+                    HttpResponse<byte[]> metrics = s.get("/metrics");
+                    assertEquals(200, metrics.statusCode());
+                    assertTrue(System.nanoTime() - t0 < TimeUnit.SECONDS.toNanos(2), env.toString());
+                    assertTrue(TestServer.text(metrics).contains("dfs_http_requests_total{path=\"/dfs\",status=\"503\"} 3"));
+                } finally {
+                    for (Socket socket : held) socket.close();
+                }
+                // client đóng kết nối: ghi lỗi, lượt duyệt kết thúc và trả chỗ
+                long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+                int status;
+                do {
+                    status = s.get("/dfs?start=0&format=delta").statusCode();
+                } while (status == 503 && System.nanoTime() < deadline);
+                assertEquals(200, status, env.toString());
+            }
+        }
+    }
+}